@@ -0,0 +1,254 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import com.rultor.spi.Talk;
+import com.rultor.spi.Talks;
+import com.rultor.spi.Upgrade;
+import com.rultor.spi.Validated;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.w3c.dom.Node;
+import org.xembly.Directive;
+import org.xembly.ImpossibleModificationException;
+import org.xembly.Xembler;
+
+/**
+ * Talks in memory, for the simulator.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+final class MemTalks implements Talks {
+
+    /**
+     * Talks by name.
+     */
+    private final transient Map<String, MemTalks.MemTalk> all =
+        new ConcurrentHashMap<String, MemTalks.MemTalk>(0);
+
+    /**
+     * Counter of talks.
+     */
+    private final transient AtomicLong counter = new AtomicLong();
+
+    @Override
+    public boolean exists(final long number) {
+        return this.find(number) != null;
+    }
+
+    @Override
+    public Talk get(final long number) {
+        final Talk talk = this.find(number);
+        if (talk == null) {
+            throw new IllegalArgumentException(
+                String.format("talk #%d not found", number)
+            );
+        }
+        return talk;
+    }
+
+    @Override
+    public boolean exists(final String name) {
+        return this.all.containsKey(name);
+    }
+
+    @Override
+    public Talk get(final String name) {
+        final Talk talk = this.all.get(name);
+        if (talk == null) {
+            throw new IllegalArgumentException(
+                String.format("talk \"%s\" not found", name)
+            );
+        }
+        return talk;
+    }
+
+    @Override
+    public void delete(final String name) {
+        this.all.remove(name);
+    }
+
+    @Override
+    public void create(final String repo, final String name) {
+        final long number = this.counter.incrementAndGet();
+        this.all.put(
+            name,
+            new MemTalks.MemTalk(
+                name, number,
+                String.format("<talk name='%s' number='%d'/>", name, number)
+            )
+        );
+    }
+
+    @Override
+    public Iterable<Talk> active() {
+        return ImmutableList.<Talk>copyOf(
+            Iterables.filter(
+                this.all.values(),
+                new Predicate<MemTalks.MemTalk>() {
+                    @Override
+                    public boolean apply(final MemTalks.MemTalk talk) {
+                        return talk.alive.get();
+                    }
+                }
+            )
+        );
+    }
+
+    @Override
+    public Iterable<Talk> recent() {
+        return this.active();
+    }
+
+    @Override
+    public Iterable<Talk> siblings(final String repo, final Date since) {
+        return this.active();
+    }
+
+    @Override
+    public Iterable<Talk> archived(final Date since, final Date till) {
+        return ImmutableList.<Talk>copyOf(
+            Iterables.filter(
+                this.all.values(),
+                new Predicate<MemTalks.MemTalk>() {
+                    @Override
+                    public boolean apply(final MemTalks.MemTalk talk) {
+                        final Date date = talk.updated();
+                        return !talk.alive.get() && !date.before(since)
+                            && date.before(till);
+                    }
+                }
+            )
+        );
+    }
+
+    /**
+     * Find talk by number.
+     * @param number Number
+     * @return Talk or NULL
+     */
+    private Talk find(final long number) {
+        Talk found = null;
+        for (final MemTalks.MemTalk talk : this.all.values()) {
+            if (talk.num == number) {
+                found = talk;
+                break;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Talk in memory.
+     */
+    private static final class MemTalk implements Talk {
+        /**
+         * Name.
+         */
+        private final transient String label;
+        /**
+         * Number.
+         */
+        private final transient long num;
+        /**
+         * XML.
+         */
+        private final transient AtomicReference<String> xml;
+        /**
+         * When updated.
+         */
+        private final transient AtomicLong time;
+        /**
+         * Is it active?
+         */
+        private final transient AtomicBoolean alive;
+        /**
+         * Ctor.
+         * @param name Name
+         * @param number Number
+         * @param body XML body
+         */
+        MemTalk(final String name, final long number, final String body) {
+            this.label = name;
+            this.num = number;
+            this.xml = new AtomicReference<String>(body);
+            this.time = new AtomicLong(System.currentTimeMillis());
+            this.alive = new AtomicBoolean(true);
+        }
+        @Override
+        public Long number() {
+            return this.num;
+        }
+        @Override
+        public String name() {
+            return this.label;
+        }
+        @Override
+        public Date updated() {
+            return new Date(this.time.get());
+        }
+        @Override
+        public XML read() {
+            return new Upgrade(new XMLDocument(this.xml.get())).xml();
+        }
+        @Override
+        public void modify(final Iterable<Directive> dirs) {
+            if (dirs.iterator().hasNext()) {
+                final Node node = this.read().node();
+                try {
+                    new Xembler(dirs).apply(node);
+                } catch (final ImpossibleModificationException ex) {
+                    throw new IllegalStateException(ex);
+                }
+                this.xml.set(
+                    new Validated(new XMLDocument(node)).xml().toString()
+                );
+                this.time.set(System.currentTimeMillis());
+            }
+        }
+        @Override
+        public void active(final boolean yes) {
+            this.alive.set(yes);
+            this.time.set(System.currentTimeMillis());
+        }
+    }
+
+}
@@ -0,0 +1,323 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor;
+
+import co.stateful.mock.MkSttc;
+import com.google.common.io.Files;
+import com.jcabi.aspects.Tv;
+import com.jcabi.github.Github;
+import com.jcabi.github.Issue;
+import com.jcabi.github.Repo;
+import com.jcabi.github.mock.MkGithub;
+import com.jcabi.log.Logger;
+import com.jcabi.s3.mock.MkBucket;
+import com.rultor.agents.Agents;
+import com.rultor.agents.shells.Farm;
+import com.rultor.agents.shells.Host;
+import com.rultor.agents.twitter.Twitter;
+import com.rultor.spi.Profile;
+import com.rultor.spi.Talk;
+import com.rultor.spi.Talks;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import javax.json.Json;
+import org.xembly.Directives;
+
+/**
+ * Offline load simulator of the routine that runs in
+ * {@link com.rultor.web.Lifespan} every minute.
+ *
+ * <p>Everything external is replaced with a stand-in: Github with
+ * {@link MkGithub}, Sttc with {@link MkSttc}, Dynamo with
+ * {@link MemTalks}, S3 with {@link MkBucket}, our build server with
+ * {@link com.rultor.agents.shells.LocalShell}, and Twitter with a no-op. Every tick new issues
+ * are created, each of them with a "hello" or a "deploy" command,
+ * and talks are started for them, as
+ * {@link com.rultor.agents.github.StartsTalks} would do. Ticks
+ * run one after another without a pause. In the end the
+ * simulator reports tick durations, throughput and latencies.
+ *
+ * <p>Run it with
+ * {@code mvn -Pjmh -DskipTests test-compile exec:java
+ * -Dexec.mainClass=com.rultor.Simulator -Dexec.classpathScope=test
+ * -Dexec.args="1000 100 10"}, where the arguments are the total
+ * number of issues, issues per tick and percentage of deploys.
+ * A deploy runs a real daemon on this machine, which fails quickly
+ * since the repository can't be cloned, but goes through the entire
+ * life cycle. Keep in mind that the Github mock is
+ * an XML file, and its cost is included in tick durations.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+public final class Simulator {
+
+    /**
+     * Total number of issues.
+     */
+    private final transient int total;
+
+    /**
+     * New issues per tick.
+     */
+    private final transient int rate;
+
+    /**
+     * Percentage of deploy commands.
+     */
+    private final transient int deploys;
+
+    /**
+     * Ctor.
+     * @param issues Total number of issues
+     * @param tick New issues per tick
+     * @param share Percentage of deploy commands
+     */
+    public Simulator(final int issues, final int tick, final int share) {
+        this.total = issues;
+        this.rate = tick;
+        this.deploys = share;
+    }
+
+    /**
+     * Entry point.
+     * @param args Total issues, issues per tick, percentage of deploys
+     * @throws IOException If fails
+     */
+    public static void main(final String... args) throws IOException {
+        new Simulator(
+            Simulator.arg(args, 0, Tv.THOUSAND),
+            Simulator.arg(args, 1, Tv.HUNDRED),
+            Simulator.arg(args, 2, Tv.TEN)
+        ).run();
+    }
+
+    /**
+     * Run it.
+     * @throws IOException If fails
+     * @checkstyle ExecutableStatementCountCheck (100 lines)
+     */
+    public void run() throws IOException {
+        final File home = Files.createTempDir();
+        final Github github = new MkGithub();
+        final Agents agents = new Agents(
+            github, new MkSttc(),
+            new Farm(
+                new Host(
+                    // @checkstyle MagicNumber (1 line)
+                    "localhost", 22, System.getProperty("user.name"),
+                    "none", Tv.TWENTY
+                )
+            ),
+            new Twitter() {
+                @Override
+                public void post(final String msg) {
+                    Logger.debug(Simulator.class, "tweet: %s", msg);
+                }
+            },
+            new MkBucket(new File(home, "s3"), "logs")
+        );
+        final MemTalks talks = new MemTalks();
+        final Profile profile = new Profile.Fixed();
+        final Map<String, Long> born = new HashMap<String, Long>(0);
+        final List<Long> latencies = new ArrayList<Long>(this.total);
+        final List<Long> ticks = new ArrayList<Long>(0);
+        final long start = System.currentTimeMillis();
+        int created = 0;
+        while (created < this.total || !born.isEmpty()) {
+            if (ticks.size() > this.total + Tv.HUNDRED) {
+                throw new IllegalStateException(
+                    String.format("%d talks never finished", born.size())
+                );
+            }
+            for (int idx = 0; idx < this.rate && created < this.total;
+                ++idx) {
+                born.put(
+                    this.inject(github, talks, created),
+                    (long) ticks.size()
+                );
+                ++created;
+            }
+            final long begin = System.currentTimeMillis();
+            final Collection<Talk> loaded = new LinkedList<Talk>();
+            for (final Talk origin : talks.active()) {
+                final Talk talk = new Talk.Cached(origin);
+                loaded.add(talk);
+                agents.agent(talk, profile).execute(talk);
+            }
+            agents.closer().execute(new Talks.Loaded(talks, loaded));
+            ticks.add(System.currentTimeMillis() - begin);
+            Simulator.finished(born, talks, ticks.size(), latencies);
+        }
+        Simulator.report(
+            ticks, latencies, System.currentTimeMillis() - start
+        );
+    }
+
+    /**
+     * Create a new issue and a talk for it.
+     * @param github Github
+     * @param talks Talks
+     * @param idx Index of the issue
+     * @return Name of the talk
+     * @throws IOException If fails
+     */
+    private String inject(final Github github, final MemTalks talks,
+        final int idx) throws IOException {
+        final Repo repo = github.repos().create(
+            Json.createObjectBuilder()
+                .add("name", String.format("test%d", idx))
+                .build()
+        );
+        final String cmd;
+        // @checkstyle MagicNumber (1 line)
+        if (idx % 100 < this.deploys) {
+            cmd = "deploy";
+        } else {
+            cmd = "hello";
+        }
+        final Issue issue = repo.issues().create(
+            cmd, String.format("@%s %s", github.users().self().login(), cmd)
+        );
+        final String name = String.format(
+            "%s#%d", repo.coordinates(), issue.number()
+        );
+        talks.create(repo.coordinates().toString(), name);
+        talks.get(name).modify(
+            new Directives()
+                .xpath("/talk").attr("later", Boolean.toString(true))
+                .add("wire").add("href")
+                .set(new Issue.Smart(issue).htmlUrl().toString()).up()
+                .add("github-repo").set(repo.coordinates().toString()).up()
+                .add("github-issue").set(Integer.toString(issue.number()))
+        );
+        return name;
+    }
+
+    /**
+     * Record latencies of talks that are not active any more.
+     * @param born Ticks when active talks were born, by name
+     * @param talks Talks
+     * @param tick Current tick
+     * @param latencies Latencies, in ticks
+     */
+    private static void finished(final Map<String, Long> born,
+        final MemTalks talks, final long tick, final List<Long> latencies) {
+        final Map<String, Long> alive = new HashMap<String, Long>(0);
+        for (final Talk talk : talks.active()) {
+            final String name = talk.name();
+            if (born.containsKey(name)) {
+                alive.put(name, born.get(name));
+            }
+        }
+        for (final Map.Entry<String, Long> ent : born.entrySet()) {
+            if (!alive.containsKey(ent.getKey())) {
+                latencies.add(tick - ent.getValue());
+            }
+        }
+        born.clear();
+        born.putAll(alive);
+    }
+
+    /**
+     * Report results.
+     * @param ticks Durations of ticks, in msec
+     * @param latencies Latencies of talks, in ticks
+     * @param msec Total time, in msec
+     */
+    private static void report(final List<Long> ticks,
+        final List<Long> latencies, final long msec) {
+        Collections.sort(ticks);
+        Collections.sort(latencies);
+        Logger.info(
+            Simulator.class,
+            // @checkstyle LineLength (1 line)
+            "%d talks in %d ticks, %[ms]s, %.2f talks/sec; tick p50/p90/p99/max: %[ms]s/%[ms]s/%[ms]s/%[ms]s; latency in ticks p50/p90/p99/max: %d/%d/%d/%d",
+            latencies.size(), ticks.size(), msec,
+            // @checkstyle MagicNumber (1 line)
+            latencies.size() * 1000.0d / Math.max(msec, 1L),
+            Simulator.percentile(ticks, Tv.FIFTY),
+            Simulator.percentile(ticks, Tv.NINETY),
+            // @checkstyle MagicNumber (2 lines)
+            Simulator.percentile(ticks, 99),
+            Simulator.percentile(ticks, 100),
+            Simulator.percentile(latencies, Tv.FIFTY),
+            Simulator.percentile(latencies, Tv.NINETY),
+            // @checkstyle MagicNumber (2 lines)
+            Simulator.percentile(latencies, 99),
+            Simulator.percentile(latencies, 100)
+        );
+    }
+
+    /**
+     * Percentile of a sorted list.
+     * @param list Sorted list
+     * @param pct Percentile
+     * @return Value
+     */
+    private static long percentile(final List<Long> list, final int pct) {
+        final long value;
+        if (list.isEmpty()) {
+            value = 0L;
+        } else {
+            // @checkstyle MagicNumber (1 line)
+            final int idx = (int) Math.ceil(pct / 100.0d * list.size()) - 1;
+            value = list.get(Math.max(idx, 0));
+        }
+        return value;
+    }
+
+    /**
+     * Get integer argument.
+     * @param args Arguments
+     * @param pos Position
+     * @param def Default value
+     * @return Value
+     */
+    private static int arg(final String[] args, final int pos, final int def) {
+        final int value;
+        if (args.length > pos) {
+            value = Integer.parseInt(args[pos]);
+        } else {
+            value = def;
+        }
+        return value;
+    }
+
+}
@@ -0,0 +1,188 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents;
+
+import com.jcabi.immutable.Array;
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import com.rultor.Time;
+import com.rultor.agents.daemons.ArchivesDaemon;
+import com.rultor.agents.daemons.EndsDaemon;
+import com.rultor.agents.daemons.KillsDaemon;
+import com.rultor.agents.req.EndsRequest;
+import com.rultor.agents.shells.RemovesShell;
+import com.rultor.spi.Agent;
+import com.rultor.spi.Talk;
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xembly.Directive;
+
+/**
+ * Benchmark of guards in {@link AbstractAgent}.
+ *
+ * <p>All agents here are skipped for the talks used, which is the most
+ * frequent case in production: we measure how much it costs to decide
+ * that there is nothing to do.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class AbstractAgentBench {
+
+    /**
+     * Kind of talk.
+     * @checkstyle VisibilityModifierCheck (3 lines)
+     */
+    @Param({ "idle", "running" })
+    public transient String kind;
+
+    /**
+     * Agents.
+     */
+    private transient Agent agent;
+
+    /**
+     * Talk.
+     */
+    private transient Talk talk;
+
+    /**
+     * Prepare.
+     */
+    @Setup
+    public void setup() {
+        this.agent = new Agent.Iterative(
+            new Array<Agent>(
+                new KillsDaemon(TimeUnit.HOURS.toMinutes(2L)),
+                new EndsRequest(),
+                new RemovesShell(),
+                new ArchivesDaemon(null)
+            )
+        );
+        final String body;
+        if ("idle".equals(this.kind)) {
+            body = StringUtils.join(
+                "<wire><href>http://example.com</href>",
+                "<github-repo>test/test</github-repo>",
+                "<github-issue>1</github-issue></wire>",
+                "<archive><log id='a1' title='merge'>s3://test/a1</log>",
+                "<log id='a2' title='deploy'>s3://test/a2</log></archive>"
+            );
+        } else {
+            body = StringUtils.join(
+                "<request id='a3'><type>merge</type><args/></request>",
+                "<daemon id='a3'><title>merge</title><script>ls</script>",
+                "<started>", new Time(new Date()).iso(), "</started>",
+                "<dir>/tmp/a3</dir></daemon>",
+                "<shell id='a3'><host>localhost</host><port>22</port>",
+                "<login>test</login><key>none</key></shell>"
+            );
+        }
+        this.talk = new AbstractAgentBench.FixedTalk(
+            new XMLDocument(
+                StringUtils.join(
+                    "<talk name='test' number='1' later='false'>",
+                    body, "</talk>"
+                )
+            )
+        );
+    }
+
+    /**
+     * Execute agents that have nothing to do.
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public void skip() throws IOException {
+        this.agent.execute(this.talk);
+    }
+
+    /**
+     * Talk with fixed XML, which ignores all modifications.
+     */
+    private static final class FixedTalk implements Talk {
+        /**
+         * XML.
+         */
+        private final transient XML xml;
+        /**
+         * Ctor.
+         * @param doc XML
+         */
+        FixedTalk(final XML doc) {
+            this.xml = doc;
+        }
+        @Override
+        public Long number() {
+            return 1L;
+        }
+        @Override
+        public String name() {
+            return Talk.TEST_NAME;
+        }
+        @Override
+        public Date updated() {
+            return new Date();
+        }
+        @Override
+        public XML read() {
+            return this.xml;
+        }
+        @Override
+        public void modify(final Iterable<Directive> dirs) {
+            // nothing
+        }
+        @Override
+        public void active(final boolean yes) {
+            // nothing
+        }
+    }
+
+}
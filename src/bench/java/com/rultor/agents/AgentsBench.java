@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents;
+
+import co.stateful.mock.MkSttc;
+import com.jcabi.github.mock.MkGithub;
+import com.rultor.agents.twitter.Twitter;
+import com.rultor.spi.Agent;
+import com.rultor.spi.Profile;
+import com.rultor.spi.Talk;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link Agents#agent(Talk, Profile)}.
+ *
+ * <p>Run it with {@code mvn -Pjmh -DskipTests verify -Djmh.args=AgentsBench}
+ * and look at {@code gc.alloc.rate.norm}, which is the amount of
+ * bytes allocated per talk. Results are also saved in JSON to
+ * {@code target/jmh-result.json}; run the same benchmark against an older
+ * revision and compare these files.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class AgentsBench {
+
+    /**
+     * Agents.
+     */
+    private transient Agents agents;
+
+    /**
+     * Talk.
+     */
+    private transient Talk talk;
+
+    /**
+     * Profile.
+     */
+    private transient Profile profile;
+
+    /**
+     * Prepare.
+     * @throws IOException If fails
+     */
+    @Setup
+    public void setup() throws IOException {
+        this.agents = new Agents(
+            new MkGithub(), new MkSttc(),
+            new Twitter() {
+                @Override
+                public void post(final String msg) {
+                    // nothing
+                }
+            }
+        );
+        this.talk = new Talk.InFile();
+        this.profile = new Profile.Fixed();
+    }
+
+    /**
+     * Build an agent for a talk.
+     * @return The agent
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public Agent agent() throws IOException {
+        return this.agents.agent(this.talk, this.profile);
+    }
+
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.req;
+
+import com.jcabi.immutable.ArrayMap;
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import com.rultor.spi.Profile;
+import com.rultor.spi.Talk;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.CharEncoding;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xembly.Directive;
+
+/**
+ * Benchmark of {@link DockerRun} and {@link StartsRequest}.
+ *
+ * <p>The profile is loaded from {@code profile.xml} fixture and
+ * the talk from {@code talk.xml} fixture of SPI benchmarks.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RequestBench {
+
+    /**
+     * Profile.
+     */
+    private transient Profile profile;
+
+    /**
+     * Talk XML.
+     */
+    private transient XML talk;
+
+    /**
+     * Docker run of "merge" command.
+     */
+    private transient DockerRun docker;
+
+    /**
+     * Prepare.
+     * @throws IOException If fails
+     */
+    @Setup
+    public void setup() throws IOException {
+        this.profile = new Profile.Fixed(
+            new XMLDocument(
+                IOUtils.toString(
+                    RequestBench.class.getResourceAsStream("profile.xml"),
+                    CharEncoding.UTF_8
+                )
+            )
+        );
+        this.talk = new XMLDocument(
+            IOUtils.toString(
+                Talk.class.getResourceAsStream("talk.xml"),
+                CharEncoding.UTF_8
+            )
+        );
+        this.docker = new DockerRun(this.profile, "/p/entry[@key='merge']");
+    }
+
+    /**
+     * Build a script.
+     * @return Script
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public String script() throws IOException {
+        return this.docker.script();
+    }
+
+    /**
+     * Build environment variables.
+     * @return Variables
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public String envs() throws IOException {
+        return this.docker.envs(
+            new ArrayMap<String, String>().with("head_branch", "feature")
+        );
+    }
+
+    /**
+     * Start a request.
+     * @return Directives
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public Iterable<Directive> process() throws IOException {
+        return new StartsRequest(this.profile).process(this.talk);
+    }
+
+}
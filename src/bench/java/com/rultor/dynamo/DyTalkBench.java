@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.dynamo;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.jcabi.dynamo.Item;
+import com.jcabi.xml.XML;
+import com.rultor.spi.Talk;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.CharEncoding;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xembly.Directives;
+
+/**
+ * Benchmark of {@link DyTalk}, with a mocked Dynamo item.
+ *
+ * <p>The "legacy" talk has no schema attribute, which means that
+ * it has to be upgraded on every read.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DyTalkBench {
+
+    /**
+     * Version of the stored talk.
+     * @checkstyle VisibilityModifierCheck (3 lines)
+     */
+    @Param({ "current", "legacy" })
+    public transient String version;
+
+    /**
+     * Talk.
+     */
+    private transient Talk talk;
+
+    /**
+     * Prepare.
+     * @throws IOException If fails
+     */
+    @Setup
+    public void setup() throws IOException {
+        String body = IOUtils.toString(
+            Talk.class.getResourceAsStream("talk.xml"),
+            CharEncoding.UTF_8
+        );
+        if ("legacy".equals(this.version)) {
+            body = body.replace(" schema=\"3\"", "");
+        }
+        final Item item = Mockito.mock(Item.class);
+        Mockito.doReturn(new AttributeValue().withS(body))
+            .when(item).get(DyTalks.ATTR_XML);
+        this.talk = new DyTalk(item);
+    }
+
+    /**
+     * Read the talk.
+     * @return XML
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public XML read() throws IOException {
+        return this.talk.read();
+    }
+
+    /**
+     * Modify the talk.
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public void modify() throws IOException {
+        this.talk.modify(
+            new Directives().xpath("/talk/wire/github-seen").set("8")
+        );
+    }
+
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.spi;
+
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.CharEncoding;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Node;
+import org.xembly.Directives;
+import org.xembly.ImpossibleModificationException;
+import org.xembly.Xembler;
+
+/**
+ * Benchmark of {@link Talk.InFile} and {@link Xembler}.
+ *
+ * <p>The talk is loaded from {@code talk.xml} fixture. Directives
+ * are idempotent, so the document doesn't grow between invocations.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TalkBench {
+
+    /**
+     * Directives, similar to what agents produce.
+     */
+    private static final Directives DIRS = new Directives()
+        .xpath("/talk/wire/github-seen").set("8")
+        .xpath("/talk").attr("later", "false");
+
+    /**
+     * Talk XML.
+     */
+    private transient XML xml;
+
+    /**
+     * Talk.
+     */
+    private transient Talk talk;
+
+    /**
+     * Prepare.
+     * @throws IOException If fails
+     */
+    @Setup
+    public void setup() throws IOException {
+        this.xml = new XMLDocument(
+            IOUtils.toString(
+                TalkBench.class.getResourceAsStream("talk.xml"),
+                CharEncoding.UTF_8
+            )
+        );
+        this.talk = new Talk.InFile(this.xml);
+    }
+
+    /**
+     * Read the talk from file.
+     * @return XML
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public XML read() throws IOException {
+        return this.talk.read();
+    }
+
+    /**
+     * Modify the talk in file.
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public void modify() throws IOException {
+        this.talk.modify(TalkBench.DIRS);
+    }
+
+    /**
+     * Apply directives to the DOM.
+     * @return Node modified
+     * @throws ImpossibleModificationException If fails
+     */
+    @Benchmark
+    public Node xembly() throws ImpossibleModificationException {
+        final Node node = this.xml.node();
+        new Xembler(TalkBench.DIRS).apply(node);
+        return node;
+    }
+
+}
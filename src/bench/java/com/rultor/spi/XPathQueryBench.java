@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.spi;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link XPathQuery} against {@link XML#xpath(String)}.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class XPathQueryBench {
+
+    /**
+     * Query.
+     */
+    private static final XPathQuery QUERY =
+        new XPathQuery("/talk/archive/log[@id=$id]/text()");
+
+    /**
+     * Logs query.
+     */
+    private static final XPathQuery LOGS =
+        new XPathQuery("/talk/archive/log");
+
+    /**
+     * Id of a log.
+     */
+    private static final XPathQuery IDENT = new XPathQuery("@id");
+
+    /**
+     * Title of a log.
+     */
+    private static final XPathQuery TITLE = new XPathQuery("@title");
+
+    /**
+     * Talk XML.
+     */
+    private transient XML xml;
+
+    /**
+     * Prepare.
+     */
+    @Setup
+    public void setup() {
+        final StringBuilder doc = new StringBuilder(
+            "<talk name='test' number='1' later='false'><archive>"
+        );
+        for (int idx = 0; idx < Tv.TWENTY; ++idx) {
+            doc.append(
+                String.format(
+                    "<log id='a%d' title='merge'>s3://test/a%1$d</log>", idx
+                )
+            );
+        }
+        this.xml = new XMLDocument(doc.append("</archive></talk>").toString());
+    }
+
+    /**
+     * Formatted XPath, compiled every time by jcabi-xml.
+     * @return Texts found
+     */
+    @Benchmark
+    public List<String> formatted() {
+        return this.xml.xpath(
+            String.format("/talk/archive/log[@id='%s']/text()", "a17")
+        );
+    }
+
+    /**
+     * Cached XPath with a variable.
+     * @return Texts found
+     */
+    @Benchmark
+    public List<String> cached() {
+        return XPathQueryBench.QUERY.with("id", "a17").xpath(this.xml);
+    }
+
+    /**
+     * Attributes of every log, like SiblingsRs, by jcabi-xml.
+     * @return Total length of attributes found
+     */
+    @Benchmark
+    public int siblingsFormatted() {
+        int total = 0;
+        for (final XML log : this.xml.nodes("/talk/archive/log")) {
+            total += log.xpath("@id").get(0).length()
+                + log.xpath("@title").get(0).length();
+        }
+        return total;
+    }
+
+    /**
+     * Attributes of every log, like SiblingsRs, by cached queries.
+     * @return Total length of attributes found
+     */
+    @Benchmark
+    public int siblingsCached() {
+        int total = 0;
+        for (final XML log : XPathQueryBench.LOGS.nodes(this.xml)) {
+            total += XPathQueryBench.IDENT.xpath(log).get(0).length()
+                + XPathQueryBench.TITLE.xpath(log).get(0).length();
+        }
+        return total;
+    }
+
+    /**
+     * Many lookups in one talk, as agents do in a tick, by jcabi-xml.
+     * @return Texts found
+     */
+    @Benchmark
+    public int lookupsFormatted() {
+        int total = 0;
+        for (int idx = 0; idx < Tv.TWENTY; ++idx) {
+            total += this.xml.xpath(
+                String.format("/talk/archive/log[@id='a%d']/text()", idx)
+            ).size();
+        }
+        return total;
+    }
+
+    /**
+     * Many lookups in one talk, as agents do in a tick, by cached queries.
+     * @return Texts found
+     */
+    @Benchmark
+    public int lookupsCached() {
+        int total = 0;
+        for (int idx = 0; idx < Tv.TWENTY; ++idx) {
+            total += XPathQueryBench.QUERY.with("id", String.format("a%d", idx))
+                .xpath(this.xml).size();
+        }
+        return total;
+    }
+
+}
@@ -57,14 +57,59 @@ public final class Toggles {
         "/tmp/rultor-%s", Manifests.read("Rultor-Revision")
     );
 
+    /**
+     * Read-only toggle.
+     */
+    private static final String READ_ONLY = "read-only";
+
+    /**
+     * Strict toggle.
+     */
+    private static final String STRICT = "strict";
+
     /**
      * Toggle read only mode.
      * @throws IOException If fails
      */
     public void toggle() throws IOException {
-        final File file = this.file();
+        this.flip(Toggles.READ_ONLY);
+    }
+
+    /**
+     * Is it read only mode now?
+     * @return TRUE if read only
+     */
+    public boolean readOnly() {
+        return this.on(Toggles.READ_ONLY);
+    }
+
+    /**
+     * Toggle validation of talks in every tick, for debugging.
+     * @throws IOException If fails
+     * @since 2.0
+     */
+    public void toggleStrict() throws IOException {
+        this.flip(Toggles.STRICT);
+    }
+
+    /**
+     * Are talks validated in every tick, not only on write?
+     * @return TRUE if validated in every tick
+     * @since 2.0
+     */
+    public boolean strict() {
+        return this.on(Toggles.STRICT);
+    }
+
+    /**
+     * Flip the toggle.
+     * @param name Name of the toggle
+     * @throws IOException If fails
+     */
+    private void flip(final String name) throws IOException {
+        final File file = this.file(name);
         synchronized (Toggles.class) {
-            if (this.readOnly()) {
+            if (file.exists()) {
                 if (!file.delete()) {
                     throw new IllegalStateException(
                         String.format("failed to delete %s", file)
@@ -77,21 +122,23 @@ public final class Toggles {
     }
 
     /**
-     * Is it read only mode now?
-     * @return TRUE if read only
+     * Is the toggle on?
+     * @param name Name of the toggle
+     * @return TRUE if on
      */
-    public boolean readOnly() {
+    private boolean on(final String name) {
         synchronized (Toggles.class) {
-            return this.file().exists();
+            return this.file(name).exists();
         }
     }
 
     /**
      * Get file.
+     * @param name Name of the toggle
      * @return File
      */
-    private File file() {
-        final File file = new File(Toggles.DIR, "read-only");
+    private File file(final String name) {
+        final File file = new File(Toggles.DIR, name);
         if (file.getParentFile().mkdirs()) {
             Logger.info(this, "directory created for %s", file);
         }
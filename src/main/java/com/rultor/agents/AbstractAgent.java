@@ -42,15 +42,24 @@ import org.xembly.Directive;
 /**
  * Abstract agent.
  *
+ * <p>An agent is executed only if its guard allows the state
+ * of the talk and all its XPath expressions find something. The guard
+ * is checked first, since it is much cheaper.
+ *
  * @author Yegor Bugayenko (yegor@tpc2.com)
  * @version $Id$
  * @since 1.0
  */
 @Immutable
 @ToString
-@EqualsAndHashCode(of = "xpaths")
+@EqualsAndHashCode(of = { "guard", "xpaths" })
 public abstract class AbstractAgent implements Agent {
 
+    /**
+     * Guard, to check before XPaths.
+     */
+    private final transient TalkState.Guard guard;
+
     /**
      * Encapsulated XPaths.
      */
@@ -61,17 +70,31 @@ public abstract class AbstractAgent implements Agent {
      * @param args XPath expressions
      */
     public AbstractAgent(final String... args) {
+        this(TalkState.Guard.ANY, args);
+    }
+
+    /**
+     * Ctor.
+     * @param grd Guard
+     * @param args XPath expressions
+     * @since 2.0
+     */
+    public AbstractAgent(final TalkState.Guard grd, final String... args) {
+        this.guard = grd;
         this.xpaths = new Array<String>(args);
     }
 
     @Override
     public final void execute(final Talk talk) throws IOException {
         final XML xml = talk.read();
-        boolean good = true;
-        for (final String xpath : this.xpaths) {
-            if (xml.nodes(xpath).isEmpty()) {
-                good = false;
-                break;
+        boolean good = this.guard.trivial()
+            || this.guard.allows(new TalkState(xml));
+        if (good) {
+            for (final String xpath : this.xpaths) {
+                if (xml.nodes(xpath).isEmpty()) {
+                    good = false;
+                    break;
+                }
             }
         }
         if (good) {
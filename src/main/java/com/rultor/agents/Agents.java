@@ -31,12 +31,16 @@ package com.rultor.agents;
 
 import co.stateful.Locks;
 import co.stateful.Sttc;
+import com.jcabi.aspects.Cacheable;
 import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Tv;
 import com.jcabi.github.Github;
 import com.jcabi.immutable.Array;
 import com.jcabi.manifests.Manifests;
+import com.jcabi.s3.Bucket;
 import com.jcabi.s3.Region;
 import com.jcabi.s3.retry.ReRegion;
+import com.rultor.agents.daemons.AdmitsDaemons;
 import com.rultor.agents.daemons.ArchivesDaemon;
 import com.rultor.agents.daemons.EndsDaemon;
 import com.rultor.agents.daemons.KillsDaemon;
@@ -65,14 +69,18 @@ import com.rultor.agents.github.qtn.QnStop;
 import com.rultor.agents.github.qtn.QnVersion;
 import com.rultor.agents.req.EndsRequest;
 import com.rultor.agents.req.StartsRequest;
-import com.rultor.agents.shells.RegistersShell;
+import com.rultor.agents.shells.Farm;
+import com.rultor.agents.shells.Host;
+import com.rultor.agents.shells.PlacesShell;
 import com.rultor.agents.shells.RemovesShell;
-import com.rultor.agents.twitter.OAuthTwitter;
+import com.rultor.agents.shells.WarmsImages;
 import com.rultor.agents.twitter.Tweets;
+import com.rultor.agents.twitter.Twitter;
 import com.rultor.spi.Agent;
 import com.rultor.spi.Profile;
 import com.rultor.spi.SuperAgent;
 import com.rultor.spi.Talk;
+import com.rultor.spi.XPathQuery;
 import java.io.IOException;
 import java.util.concurrent.TimeUnit;
 import lombok.EqualsAndHashCode;
@@ -96,6 +104,13 @@ import org.apache.commons.lang3.CharEncoding;
 @SuppressWarnings("PMD.ExcessiveImports")
 public final class Agents {
 
+    /**
+     * XPath for commanders of a command.
+     */
+    private static final XPathQuery COMMANDERS = new XPathQuery(
+        "/p/entry[@key=$entry]/entry[@key='commanders']/item/text()"
+    );
+
     /**
      * Github client.
      */
@@ -106,14 +121,57 @@ public final class Agents {
      */
     private final transient Sttc sttc;
 
+    /**
+     * Farm of build hosts.
+     */
+    private final transient Farm farm;
+
+    /**
+     * Twitter.
+     */
+    private final transient Twitter twitter;
+
+    /**
+     * Bucket for archived logs.
+     */
+    private final transient Bucket bucket;
+
     /**
      * Ctor.
      * @param ghub Github client
      * @param stc Sttc client
+     * @param twtr Twitter
+     * @since 2.0
      */
-    public Agents(final Github ghub, final Sttc stc) {
+    public Agents(final Github ghub, final Sttc stc, final Twitter twtr) {
+        this(
+            ghub, stc, Agents.hosts(), twtr,
+            new ReRegion(
+                new Region.Simple(
+                    Manifests.read("Rultor-S3Key"),
+                    Manifests.read("Rultor-S3Secret")
+                )
+            ).bucket(Manifests.read("Rultor-S3Bucket"))
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param ghub Github client
+     * @param stc Sttc client
+     * @param hosts Farm of build hosts
+     * @param twtr Twitter
+     * @param bkt Bucket for archived logs
+     * @since 2.0
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public Agents(final Github ghub, final Sttc stc, final Farm hosts,
+        final Twitter twtr, final Bucket bkt) {
         this.github = ghub;
         this.sttc = stc;
+        this.farm = hosts;
+        this.twitter = twtr;
+        this.bucket = bkt;
     }
 
     /**
@@ -136,7 +194,9 @@ public final class Agents {
     public SuperAgent closer() throws IOException {
         return new SuperAgent.Iterative(
             new Array<SuperAgent>(
+                new AdmitsDaemons(Tv.TWENTY, 1),
                 new UnlocksRepo(this.sttc.locks(), this.github),
+                new WarmsImages(this.farm, Tv.FIFTY),
                 new DeactivatesTalks()
             )
         );
@@ -144,6 +204,11 @@ public final class Agents {
 
     /**
      * Create it for a talk.
+     *
+     * <p>Only the agents that depend on the talk or its profile are
+     * constructed here, everything else is built once and reused
+     * for all talks.
+     *
      * @param talk Talk itself
      * @param profile Profile
      * @return The agent
@@ -152,7 +217,6 @@ public final class Agents {
      */
     public Agent agent(final Talk talk, final Profile profile)
         throws IOException {
-        final Locks locks = this.sttc.locks();
         return new Agent.Iterative(
             new Array<Agent>(
                 new Understands(
@@ -161,7 +225,7 @@ public final class Agents {
                         // @checkstyle MagicNumber (1 line)
                         49092213,
                         new QnReferredTo(
-                            this.github.users().self().login(),
+                            this.self(),
                             new QnParametrized(
                                 new Question.FirstOf(
                                     new Array<Question>(
@@ -172,9 +236,9 @@ public final class Agents {
                                         new QnFollow(
                                             new QnIfCollaborator(
                                                 new QnAlone(
-                                                    talk, locks,
+                                                    talk, this.locks(),
                                                     new Question.FirstOf(
-                                                        this.commands(profile)
+                                                        Agents.commands(profile)
                                                     )
                                                 )
                                             )
@@ -186,50 +250,84 @@ public final class Agents {
                     )
                 ),
                 new StartsRequest(profile),
-                new RegistersShell(
-                    // @checkstyle MagicNumber (1 line)
-                    "b1.rultor.com", 22,
-                    "rultor",
-                    IOUtils.toString(
-                        this.getClass().getResourceAsStream("rultor.key"),
-                        CharEncoding.UTF_8
-                    )
-                ),
+                new PlacesShell(this.farm),
                 new StartsDaemon(profile),
+                this.lifecycle(),
+                new Publishes(profile)
+            )
+        );
+    }
+
+    /**
+     * Login of the Github user we're working as.
+     * @return Login
+     * @throws IOException If fails
+     */
+    @Cacheable(forever = true)
+    private String self() throws IOException {
+        return this.github.users().self().login();
+    }
+
+    /**
+     * Locks.
+     * @return Locks
+     * @throws IOException If fails
+     */
+    @Cacheable(forever = true)
+    private Locks locks() throws IOException {
+        return this.sttc.locks();
+    }
+
+    /**
+     * Agents that watch running daemons, report their results and archive
+     * them, they don't depend on a talk or a profile.
+     * @return The agent
+     */
+    @Cacheable(forever = true)
+    private Agent lifecycle() {
+        return new Agent.Iterative(
+            new Array<Agent>(
                 new KillsDaemon(TimeUnit.HOURS.toMinutes(2L)),
                 new EndsDaemon(),
                 new EndsRequest(),
-                new Tweets(
-                    this.github,
-                    new OAuthTwitter(
-                        Manifests.read("Rultor-TwitterKey"),
-                        Manifests.read("Rultor-TwitterSecret"),
-                        Manifests.read("Rultor-TwitterToken"),
-                        Manifests.read("Rultor-TwitterTokenSecret")
-                    )
-                ),
+                new Tweets(this.github, this.twitter),
                 new CommentsTag(this.github),
                 new Reports(this.github),
                 new RemovesShell(),
-                new ArchivesDaemon(
-                    new ReRegion(
-                        new Region.Simple(
-                            Manifests.read("Rultor-S3Key"),
-                            Manifests.read("Rultor-S3Secret")
-                        )
-                    ).bucket(Manifests.read("Rultor-S3Bucket"))
-                ),
-                new Publishes(profile)
+                new ArchivesDaemon(this.bucket)
             )
         );
     }
 
+    /**
+     * Our build servers.
+     * @return The farm
+     */
+    private static Farm hosts() {
+        try {
+            return new Farm(
+                new Host(
+                    // @checkstyle MagicNumber (1 line)
+                    "b1.rultor.com", 22,
+                    "rultor",
+                    IOUtils.toString(
+                        Agents.class.getResourceAsStream("rultor.key"),
+                        CharEncoding.UTF_8
+                    ),
+                    Tv.TWENTY
+                )
+            );
+        } catch (final IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
     /**
      * Handle main commands.
      * @param profile Profile to uuse
      * @return Array of questions.
      */
-    private Array<Question> commands(final Profile profile) {
+    private static Array<Question> commands(final Profile profile) {
         return new Array<Question>(
             new QnIfContains(
                 "merge",
@@ -271,11 +369,8 @@ public final class Agents {
      * @param entry Entry
      * @return XPath
      */
-    private static String commanders(final String entry) {
-        return String.format(
-            "/p/entry[@key='%s']/entry[@key='commanders']/item/text()",
-            entry
-        );
+    private static XPathQuery commanders(final String entry) {
+        return Agents.COMMANDERS.with("entry", entry);
     }
 
 }
@@ -61,6 +61,7 @@ public final class Publishes extends AbstractAgent {
      */
     public Publishes(final Profile prf) {
         super(
+            new TalkState.Guard().with(TalkState.Fact.ARCHIVE),
             "/talk[@public!='false']",
             "/talk/archive/log"
         );
@@ -0,0 +1,299 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.xml.XML;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+
+/**
+ * Compact summary of the state of a talk.
+ *
+ * <p>The state is calculated by a single walk through the elements
+ * of the talk, without any XPath. {@link AbstractAgent} uses it in order
+ * to skip agents that obviously have nothing to do, before their XPath
+ * expressions are evaluated.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = "bits")
+public final class TalkState {
+
+    /**
+     * Facts about a talk.
+     */
+    public enum Fact {
+        /**
+         * There is a request.
+         */
+        REQUEST,
+        /**
+         * The request has a success flag.
+         */
+        SUCCESS,
+        /**
+         * There is a wire.
+         */
+        WIRE,
+        /**
+         * There is a daemon.
+         */
+        DAEMON,
+        /**
+         * The daemon is started.
+         */
+        STARTED,
+        /**
+         * The daemon is ended.
+         */
+        ENDED,
+        /**
+         * The daemon has an exit code.
+         */
+        CODE,
+        /**
+         * There is a shell.
+         */
+        SHELL,
+        /**
+         * There is an archive.
+         */
+        ARCHIVE,
+        /**
+         * The daemon is waiting in the queue.
+         */
+        QUEUED;
+        /**
+         * Bit of this fact.
+         * @return Bit mask
+         */
+        private int bit() {
+            return 1 << this.ordinal();
+        }
+    }
+
+    /**
+     * Facts, as a bit mask.
+     */
+    private final transient int bits;
+
+    /**
+     * Ctor.
+     * @param xml XML of the talk
+     */
+    public TalkState(final XML xml) {
+        this(TalkState.scan(xml.node()));
+    }
+
+    /**
+     * Ctor.
+     * @param mask Bit mask of facts
+     */
+    private TalkState(final int mask) {
+        this.bits = mask;
+    }
+
+    /**
+     * Is this fact true?
+     * @param fact The fact
+     * @return TRUE if it is
+     */
+    public boolean has(final TalkState.Fact fact) {
+        return (this.bits & fact.bit()) != 0;
+    }
+
+    /**
+     * Calculate bit mask of facts.
+     * @param node DOM node
+     * @return Bit mask
+     */
+    private static int scan(final Node node) {
+        Node talk = node;
+        if (talk instanceof Document) {
+            talk = Document.class.cast(talk).getDocumentElement();
+        }
+        int mask = 0;
+        for (Node kid = talk.getFirstChild(); kid != null;
+            kid = kid.getNextSibling()) {
+            final String name = kid.getNodeName();
+            if ("request".equals(name)) {
+                mask |= TalkState.Fact.REQUEST.bit();
+                if (TalkState.child(kid, "success")) {
+                    mask |= TalkState.Fact.SUCCESS.bit();
+                }
+            } else if ("daemon".equals(name)) {
+                mask |= TalkState.Fact.DAEMON.bit()
+                    | TalkState.mask(kid, "started", TalkState.Fact.STARTED)
+                    | TalkState.mask(kid, "ended", TalkState.Fact.ENDED)
+                    | TalkState.mask(kid, "code", TalkState.Fact.CODE)
+                    | TalkState.mask(kid, "queued", TalkState.Fact.QUEUED);
+            } else if ("wire".equals(name)) {
+                mask |= TalkState.Fact.WIRE.bit();
+            } else if ("shell".equals(name)) {
+                mask |= TalkState.Fact.SHELL.bit();
+            } else if ("archive".equals(name)) {
+                mask |= TalkState.Fact.ARCHIVE.bit();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Bit of the fact, if the child is present.
+     * @param node Node
+     * @param name Name of the child
+     * @param fact The fact
+     * @return Bit mask or zero
+     */
+    private static int mask(final Node node, final String name,
+        final TalkState.Fact fact) {
+        final int mask;
+        if (TalkState.child(node, name)) {
+            mask = fact.bit();
+        } else {
+            mask = 0;
+        }
+        return mask;
+    }
+
+    /**
+     * Node has a child with this name?
+     * @param node Node
+     * @param name Name of the child
+     * @return TRUE if it has
+     */
+    private static boolean child(final Node node, final String name) {
+        boolean found = false;
+        for (Node kid = node.getFirstChild(); kid != null;
+            kid = kid.getNextSibling()) {
+            if (name.equals(kid.getNodeName())) {
+                found = true;
+                break;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Precondition of an agent, in terms of facts.
+     *
+     * <p>It must never be stricter than XPath expressions of the agent,
+     * since it is checked before them and only filters out talks which
+     * XPath would reject anyway.
+     */
+    @Immutable
+    @ToString
+    @EqualsAndHashCode(of = { "present", "absent" })
+    public static final class Guard {
+        /**
+         * Allows everything.
+         */
+        public static final TalkState.Guard ANY = new TalkState.Guard(0, 0);
+        /**
+         * Facts that must be true.
+         */
+        private final transient int present;
+        /**
+         * Facts that must be false.
+         */
+        private final transient int absent;
+        /**
+         * Ctor.
+         */
+        public Guard() {
+            this(0, 0);
+        }
+        /**
+         * Ctor.
+         * @param yes Facts that must be true
+         * @param not Facts that must be false
+         */
+        private Guard(final int yes, final int not) {
+            this.present = yes;
+            this.absent = not;
+        }
+        /**
+         * With these facts true.
+         * @param facts Facts
+         * @return New guard
+         */
+        public TalkState.Guard with(final TalkState.Fact... facts) {
+            return new TalkState.Guard(
+                this.present | TalkState.Guard.mask(facts), this.absent
+            );
+        }
+        /**
+         * With these facts false.
+         * @param facts Facts
+         * @return New guard
+         */
+        public TalkState.Guard without(final TalkState.Fact... facts) {
+            return new TalkState.Guard(
+                this.present, this.absent | TalkState.Guard.mask(facts)
+            );
+        }
+        /**
+         * Does it allow this state?
+         * @param state The state
+         * @return TRUE if allows
+         */
+        public boolean allows(final TalkState state) {
+            return (state.bits & this.present) == this.present
+                && (state.bits & this.absent) == 0;
+        }
+        /**
+         * Is it trivial, allowing any state?
+         * @return TRUE if it is
+         */
+        public boolean trivial() {
+            return this.present == 0 && this.absent == 0;
+        }
+        /**
+         * Bit mask of facts.
+         * @param facts Facts
+         * @return Bit mask
+         */
+        private static int mask(final TalkState.Fact... facts) {
+            int mask = 0;
+            for (final TalkState.Fact fact : facts) {
+                mask |= fact.bit();
+            }
+            return mask;
+        }
+    }
+
+}
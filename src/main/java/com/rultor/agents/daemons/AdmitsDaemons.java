@@ -0,0 +1,255 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.daemons;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.log.Logger;
+import com.jcabi.xml.XML;
+import com.rultor.spi.SuperAgent;
+import com.rultor.spi.Talk;
+import com.rultor.spi.Talks;
+import com.rultor.spi.XPathQuery;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.xembly.Directives;
+
+/**
+ * Admits queued daemons when there is capacity for them.
+ *
+ * <p>{@link com.rultor.agents.req.StartsRequest} creates every daemon
+ * with a {@code queued} time. Daemons are admitted by priority of their
+ * commands ("release" first, then "deploy", then everything else) and,
+ * inside one priority, in order of their arrival, as long as the number of
+ * admitted and not yet ended daemons is below the global limit and the
+ * limit per repository. Daemons left in the queue get their positions,
+ * which are reported by {@link com.rultor.agents.github.qtn.QnStatus}.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = { "total", "repo" })
+public final class AdmitsDaemons implements SuperAgent {
+
+    /**
+     * Daemon admitted and not ended yet.
+     */
+    private static final XPathQuery RUNNING = new XPathQuery(
+        "/talk/daemon[not(queued) and not(ended)]"
+    );
+
+    /**
+     * Daemon waiting in the queue.
+     */
+    private static final XPathQuery QUEUED = new XPathQuery(
+        "/talk/daemon[queued]"
+    );
+
+    /**
+     * Position of the daemon in the queue.
+     */
+    private static final XPathQuery POSITION = new XPathQuery(
+        "/talk/daemon/position/text()"
+    );
+
+    /**
+     * Commands in order of their priority.
+     */
+    private static final String[] PRIORITY = {"release", "deploy"};
+
+    /**
+     * Maximum number of daemons running at the same time.
+     */
+    private final transient int total;
+
+    /**
+     * Maximum number of daemons of one repository running at the same time.
+     */
+    private final transient int repo;
+
+    /**
+     * Ctor.
+     * @param max Maximum number of daemons running at the same time
+     * @param per Maximum number of daemons of one repository
+     */
+    public AdmitsDaemons(final int max, final int per) {
+        this.total = max;
+        this.repo = per;
+    }
+
+    @Override
+    public void execute(final Talks talks) throws IOException {
+        final Map<String, Integer> running = new HashMap<String, Integer>(0);
+        final List<AdmitsDaemons.Waiting> queue =
+            new ArrayList<AdmitsDaemons.Waiting>(0);
+        int busy = 0;
+        for (final Talk talk : talks.active()) {
+            final XML xml = talk.read();
+            if (AdmitsDaemons.RUNNING.exists(xml)) {
+                final String name = AdmitsDaemons.repo(xml);
+                running.put(name, AdmitsDaemons.count(running, name) + 1);
+                ++busy;
+            } else if (AdmitsDaemons.QUEUED.exists(xml)) {
+                queue.add(new AdmitsDaemons.Waiting(talk, xml));
+            }
+        }
+        Collections.sort(queue, new AdmitsDaemons.ByPriority());
+        int position = 0;
+        for (final AdmitsDaemons.Waiting waiting : queue) {
+            final String name = AdmitsDaemons.repo(waiting.xml);
+            final int mine = AdmitsDaemons.count(running, name);
+            if (busy < this.total && mine < this.repo) {
+                waiting.talk.modify(
+                    new Directives()
+                        .xpath("/talk/daemon/queued").remove()
+                        .xpath("/talk/daemon/position").remove()
+                );
+                running.put(name, mine + 1);
+                ++busy;
+                Logger.info(
+                    this, "daemon admitted in %s, %d running",
+                    waiting.talk.name(), busy
+                );
+            } else {
+                ++position;
+                final String pos = Integer.toString(position);
+                if (!AdmitsDaemons.POSITION.xpath(waiting.xml).contains(pos)) {
+                    waiting.talk.modify(
+                        new Directives()
+                            .xpath("/talk/daemon")
+                            .addIf("position")
+                            .set(pos)
+                    );
+                }
+            }
+        }
+    }
+
+    /**
+     * Name of the repository of the talk.
+     * @param xml XML of the talk
+     * @return Name
+     */
+    private static String repo(final XML xml) {
+        final List<String> repos = xml.xpath("/talk/wire/github-repo/text()");
+        final String name;
+        if (repos.isEmpty()) {
+            name = xml.xpath("/talk/@name").get(0);
+        } else {
+            name = repos.get(0);
+        }
+        return name;
+    }
+
+    /**
+     * Number of daemons running.
+     * @param running Daemons running, by repository
+     * @param name Name of the repository
+     * @return Number
+     */
+    private static int count(final Map<String, Integer> running,
+        final String name) {
+        final Integer count = running.get(name);
+        final int num;
+        if (count == null) {
+            num = 0;
+        } else {
+            num = count;
+        }
+        return num;
+    }
+
+    /**
+     * Daemon waiting in the queue.
+     */
+    private static final class Waiting {
+        /**
+         * Talk.
+         */
+        private final transient Talk talk;
+        /**
+         * Its XML.
+         */
+        private final transient XML xml;
+        /**
+         * Priority, smaller is more important.
+         */
+        private final transient int priority;
+        /**
+         * When queued, in ISO 8601.
+         */
+        private final transient String since;
+        /**
+         * Ctor.
+         * @param tlk Talk
+         * @param doc Its XML
+         */
+        Waiting(final Talk tlk, final XML doc) {
+            this.talk = tlk;
+            this.xml = doc;
+            final String title = doc.xpath("/talk/daemon/title/text()").get(0);
+            int prio = AdmitsDaemons.PRIORITY.length;
+            for (int idx = 0; idx < AdmitsDaemons.PRIORITY.length; ++idx) {
+                if (AdmitsDaemons.PRIORITY[idx].equals(title)) {
+                    prio = idx;
+                    break;
+                }
+            }
+            this.priority = prio;
+            this.since = doc.xpath("/talk/daemon/queued/text()").get(0);
+        }
+    }
+
+    /**
+     * Order of admission.
+     */
+    private static final class ByPriority
+        implements Comparator<AdmitsDaemons.Waiting> {
+        @Override
+        public int compare(final AdmitsDaemons.Waiting left,
+            final AdmitsDaemons.Waiting right) {
+            int cmp = Integer.compare(left.priority, right.priority);
+            if (cmp == 0) {
+                cmp = left.since.compareTo(right.since);
+            }
+            return cmp;
+        }
+    }
+
+}
@@ -39,7 +39,9 @@ import com.jcabi.ssh.Shell;
 import com.jcabi.xml.XML;
 import com.rultor.Time;
 import com.rultor.agents.AbstractAgent;
+import com.rultor.agents.TalkState;
 import com.rultor.agents.shells.TalkShells;
+import com.rultor.spi.XPathQuery;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -69,6 +71,41 @@ import org.xembly.Directives;
 @EqualsAndHashCode(callSuper = false, of = "bucket")
 public final class ArchivesDaemon extends AbstractAgent {
 
+    /**
+     * Directory of the daemon.
+     */
+    private static final XPathQuery DIR =
+        new XPathQuery("/talk/daemon/dir/text()");
+
+    /**
+     * ID of the daemon.
+     */
+    private static final XPathQuery ID = new XPathQuery("/talk/daemon/@id");
+
+    /**
+     * Exit code of the daemon.
+     */
+    private static final XPathQuery CODE =
+        new XPathQuery("/talk/daemon/code/text()");
+
+    /**
+     * Title of the daemon.
+     */
+    private static final XPathQuery TITLE =
+        new XPathQuery("/talk/daemon/title/text()");
+
+    /**
+     * When the daemon was started.
+     */
+    private static final XPathQuery STARTED =
+        new XPathQuery("/talk/daemon/started/text()");
+
+    /**
+     * When the daemon was ended.
+     */
+    private static final XPathQuery ENDED =
+        new XPathQuery("/talk/daemon/ended/text()");
+
     /**
      * S3 bucket.
      */
@@ -80,6 +117,11 @@ public final class ArchivesDaemon extends AbstractAgent {
      */
     public ArchivesDaemon(final Bucket bkt) {
         super(
+            new TalkState.Guard().with(
+                TalkState.Fact.DAEMON, TalkState.Fact.STARTED,
+                TalkState.Fact.CODE, TalkState.Fact.ENDED,
+                TalkState.Fact.SHELL
+            ),
             "/talk/daemon[started and code and ended]",
             "/talk/shell"
         );
@@ -90,7 +132,7 @@ public final class ArchivesDaemon extends AbstractAgent {
     public Iterable<Directive> process(final XML xml) throws IOException {
         final Shell shell = new TalkShells(xml).get();
         final File file = File.createTempFile("rultor", ".log");
-        final String dir = xml.xpath("/talk/daemon/dir/text()").get(0);
+        final String dir = ArchivesDaemon.DIR.xpath(xml).get(0);
         new Shell.Safe(shell).exec(
             Joiner.on("; ").join(
                 String.format("dir=%s", SSH.escape(dir)),
@@ -106,7 +148,7 @@ public final class ArchivesDaemon extends AbstractAgent {
         new Shell.Empty(new Shell.Safe(shell)).exec(
             String.format("sudo rm -rf %1$s || rm -rf %s", SSH.escape(dir))
         );
-        final String hash = xml.xpath("/talk/daemon/@id").get(0);
+        final String hash = ArchivesDaemon.ID.xpath(xml).get(0);
         final URI uri = this.upload(file, hash);
         final String title = this.title(xml, file);
         Logger.info(this, "daemon archived into %s: %s", uri, title);
@@ -144,7 +186,7 @@ public final class ArchivesDaemon extends AbstractAgent {
      */
     private String title(final XML xml, final File file) throws IOException {
         final int code = Integer.parseInt(
-            xml.xpath("/talk/daemon/code/text()").get(0)
+            ArchivesDaemon.CODE.xpath(xml).get(0)
         );
         final String status;
         if (code == 0) {
@@ -154,11 +196,11 @@ public final class ArchivesDaemon extends AbstractAgent {
         }
         return Logger.format(
             "%s: %d (%s) in %[ms]s, %d lines",
-            xml.xpath("/talk/daemon/title/text()").get(0),
+            ArchivesDaemon.TITLE.xpath(xml).get(0),
             code,
             status,
-            new Time(xml.xpath("/talk/daemon/ended/text()").get(0)).msec()
-            - new Time(xml.xpath("/talk/daemon/started/text()").get(0)).msec(),
+            new Time(ArchivesDaemon.ENDED.xpath(xml).get(0)).msec()
+            - new Time(ArchivesDaemon.STARTED.xpath(xml).get(0)).msec(),
             FileUtils.readLines(file).size()
         );
     }
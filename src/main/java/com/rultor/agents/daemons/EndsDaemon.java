@@ -41,6 +41,7 @@ import com.jcabi.ssh.Shell;
 import com.jcabi.xml.XML;
 import com.rultor.Time;
 import com.rultor.agents.AbstractAgent;
+import com.rultor.agents.TalkState;
 import com.rultor.agents.shells.TalkShells;
 import java.io.IOException;
 import lombok.EqualsAndHashCode;
@@ -78,7 +79,12 @@ public final class EndsDaemon extends AbstractAgent {
      * Ctor.
      */
     public EndsDaemon() {
-        super("/talk/daemon[started and not(code) and not(ended)]");
+        super(
+            new TalkState.Guard()
+                .with(TalkState.Fact.DAEMON, TalkState.Fact.STARTED)
+                .without(TalkState.Fact.CODE, TalkState.Fact.ENDED),
+            "/talk/daemon[started and not(code) and not(ended)]"
+        );
     }
 
     @Override
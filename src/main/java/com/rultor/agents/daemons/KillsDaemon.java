@@ -36,6 +36,7 @@ import com.jcabi.ssh.SSH;
 import com.jcabi.ssh.Shell;
 import com.jcabi.xml.XML;
 import com.rultor.agents.AbstractAgent;
+import com.rultor.agents.TalkState;
 import com.rultor.agents.shells.TalkShells;
 import java.io.IOException;
 import java.util.concurrent.TimeUnit;
@@ -69,6 +70,9 @@ public final class KillsDaemon extends AbstractAgent {
      */
     public KillsDaemon(final long mins) {
         super(
+            new TalkState.Guard()
+                .with(TalkState.Fact.DAEMON, TalkState.Fact.STARTED)
+                .without(TalkState.Fact.CODE, TalkState.Fact.ENDED),
             "/talk/daemon[started and not(code) and not(ended)]",
             String.format(
                 // @checkstyle LineLength (1 line)
@@ -38,6 +38,7 @@ import com.jcabi.ssh.Shell;
 import com.jcabi.xml.XML;
 import com.rultor.Time;
 import com.rultor.agents.AbstractAgent;
+import com.rultor.agents.TalkState;
 import com.rultor.agents.shells.TalkShells;
 import com.rultor.spi.Profile;
 import java.io.ByteArrayInputStream;
@@ -50,8 +51,9 @@ import java.util.logging.Level;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
 import org.apache.commons.io.IOUtils;
-import org.apache.commons.io.input.NullInputStream;
 import org.apache.commons.lang3.CharEncoding;
 import org.xembly.Directive;
 import org.xembly.Directives;
@@ -80,6 +82,9 @@ public final class StartsDaemon extends AbstractAgent {
      */
     public StartsDaemon(final Profile prof) {
         super(
+            new TalkState.Guard()
+                .with(TalkState.Fact.SHELL, TalkState.Fact.DAEMON)
+                .without(TalkState.Fact.STARTED, TalkState.Fact.ENDED),
             "/talk/shell[host and port and login and key]",
             "/talk/daemon[script and not(started) and not(ended)]"
         );
@@ -92,50 +97,20 @@ public final class StartsDaemon extends AbstractAgent {
         final Shell shell = new TalkShells(xml).get();
         final ByteArrayOutputStream baos = new ByteArrayOutputStream();
         new Shell.Safe(shell).exec(
-            "mktemp -d -t rultor-XXXX",
-            new NullInputStream(0L),
-            baos, baos
-        );
-        final String dir = baos.toString(CharEncoding.UTF_8).trim();
-        new Shell.Safe(shell).exec(
-            String.format("dir=%s; cat > \"${dir}/run.sh\"", SSH.escape(dir)),
-            IOUtils.toInputStream(
-                Joiner.on('\n').join(
-                    "#!/bin/bash",
-                    "set -x",
-                    "set -e",
-                    "set -o pipefail",
-                    "cd $(dirname $0)",
-                    "echo $$ > ./pid",
-                    String.format(
-                        "echo %s",
-                        SSH.escape(
-                            String.format(
-                                "%s %s",
-                                Manifests.read("Rultor-Version"),
-                                Manifests.read("Rultor-Revision")
-                            )
-                        )
-                    ),
-                    "date",
-                    "uptime",
-                    this.upload(shell, dir),
-                    daemon.xpath("script/text()").get(0)
-                ),
-                CharEncoding.UTF_8
-            ),
-            Logger.stream(Level.INFO, this),
-            Logger.stream(Level.WARNING, this)
-        );
-        new Shell.Empty(new Shell.Safe(shell)).exec(
             Joiner.on(" && ").join(
-                String.format("dir=%s", SSH.escape(dir)),
+                "dir=$(mktemp -d -t rultor-XXXX)",
+                "tar -x -C \"${dir}\"",
                 "chmod a+x \"${dir}/run.sh\"",
                 "echo 'run.sh failed to start' > \"${dir}/stdout\"",
                 // @checkstyle LineLength (1 line)
-                "( ( nohup \"${dir}/run.sh\" </dev/null >\"${dir}/stdout\" 2>&1; echo $? >\"${dir}/status\" ) </dev/null >/dev/null & )"
-            )
+                "( ( nohup \"${dir}/run.sh\" </dev/null >\"${dir}/stdout\" 2>&1; echo $? >\"${dir}/status\" ) </dev/null >/dev/null & )",
+                "echo \"${dir}\""
+            ),
+            new ByteArrayInputStream(this.tar(daemon)),
+            baos,
+            Logger.stream(Level.WARNING, this)
         );
+        final String dir = baos.toString(CharEncoding.UTF_8).trim();
         Logger.info(this, "daemon started at %s", dir);
         return new Directives()
             .xpath("/talk/daemon[not(started)]")
@@ -145,70 +120,107 @@ public final class StartsDaemon extends AbstractAgent {
     }
 
     /**
-     * Upload assets.
-     * @param shell Shell
-     * @param dir Directory
-     * @return Script to use
+     * Make a TAR archive with the entire working directory of the daemon.
+     *
+     * <p>The archive contains {@code run.sh}, all assets of the profile
+     * and GPG keys, if they are needed, in order to upload all of them
+     * to the server in one SSH call.
+     *
+     * @param daemon XML of the daemon
+     * @return TAR archive
      * @throws IOException If fails
      */
-    private String upload(final Shell shell, final String dir)
-        throws IOException {
+    private byte[] tar(final XML daemon) throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final TarArchiveOutputStream tar = new TarArchiveOutputStream(baos);
+        tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
         String script = "";
         try {
             for (final Map.Entry<String, InputStream> asset
                 : this.profile.assets().entrySet()) {
-                shell.exec(
-                    String.format(
-                        "cat > %s",
-                        SSH.escape(String.format("%s/%s", dir, asset.getKey()))
-                    ),
-                    asset.getValue(),
-                    Logger.stream(Level.INFO, true),
-                    Logger.stream(Level.WARNING, true)
+                StartsDaemon.add(
+                    tar, asset.getKey(),
+                    IOUtils.toByteArray(asset.getValue())
                 );
                 Logger.info(
-                    this, "\"%s\" uploaded into %s",
-                    asset.getKey(), dir
+                    this, "\"%s\" added to the archive", asset.getKey()
                 );
             }
-            this.gpg(shell, dir);
+            this.gpg(tar);
         } catch (final Profile.ConfigException ex) {
             script = Logger.format(
                 "cat << EOT\n%s\nEOT\nexit -1",
                 ex.getLocalizedMessage()
             );
         }
-        return script;
+        StartsDaemon.add(
+            tar, "run.sh",
+            Joiner.on('\n').join(
+                "#!/bin/bash",
+                "set -x",
+                "set -e",
+                "set -o pipefail",
+                "cd $(dirname $0)",
+                "echo $$ > ./pid",
+                String.format(
+                    "echo %s",
+                    SSH.escape(
+                        String.format(
+                            "%s %s",
+                            Manifests.read("Rultor-Version"),
+                            Manifests.read("Rultor-Revision")
+                        )
+                    )
+                ),
+                "date",
+                "uptime",
+                script,
+                daemon.xpath("script/text()").get(0)
+            ).getBytes(CharEncoding.UTF_8)
+        );
+        tar.close();
+        return baos.toByteArray();
     }
 
     /**
-     * Upload GPG keys.
-     * @param shell Shell
-     * @param dir Dir
+     * Add GPG keys to the archive.
+     * @param tar Archive
      * @throws IOException If fails
      */
-    private void gpg(final Shell shell, final String dir) throws IOException {
+    private void gpg(final TarArchiveOutputStream tar) throws IOException {
         final Collection<XML> entries = this.profile.read().nodes(
             "/p/entry[@key='decrypt']/entry"
         );
         if (!entries.isEmpty()) {
+            tar.putArchiveEntry(new TarArchiveEntry(".gpg/"));
+            tar.closeArchiveEntry();
             final String[] names = {"pubring.gpg", "secring.gpg"};
             for (final String name : names) {
-                shell.exec(
-                    Joiner.on(" &&  ").join(
-                        String.format("dir=%s  ", SSH.escape(dir)),
-                        "mkdir -p \"${dir}/.gpg\"",
-                        String.format("cat > \"${dir}/.gpg/%s\"", name)
-                    ),
-                    this.ring(name),
-                    Logger.stream(Level.INFO, true),
-                    Logger.stream(Level.WARNING, true)
+                StartsDaemon.add(
+                    tar, String.format(".gpg/%s", name),
+                    IOUtils.toByteArray(this.ring(name))
                 );
             }
-            Logger.info(this, "GPG keys uploaded to %s", dir);
+            Logger.info(this, "GPG keys added to the archive");
         }
     }
 
+    /**
+     * Add a file to the archive.
+     * @param tar Archive
+     * @param name Name of the file
+     * @param bytes Content of it
+     * @throws IOException If fails
+     */
+    private static void add(final TarArchiveOutputStream tar,
+        final String name, final byte[] bytes) throws IOException {
+        final TarArchiveEntry entry = new TarArchiveEntry(name);
+        entry.setSize((long) bytes.length);
+        tar.putArchiveEntry(entry);
+        tar.write(bytes);
+        tar.closeArchiveEntry();
+    }
+
     /**
      * Get contents of ring.
      * @param name Name
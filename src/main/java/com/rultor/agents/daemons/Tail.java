@@ -39,6 +39,7 @@ import com.jcabi.ssh.SSH;
 import com.jcabi.ssh.Shell;
 import com.jcabi.xml.XML;
 import com.rultor.agents.shells.TalkShells;
+import com.rultor.spi.XPathQuery;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -67,6 +68,37 @@ import org.apache.commons.lang3.StringUtils;
 @EqualsAndHashCode(callSuper = false, of = { "xml", "hash" })
 public final class Tail {
 
+    /**
+     * Name of the variable with hash.
+     */
+    private static final String VAR = "hash";
+
+    /**
+     * Log is in the archive.
+     */
+    private static final XPathQuery ARCHIVED = new XPathQuery(
+        "/talk/archive/log[@id=$hash and starts-with(.,'s3:')]"
+    );
+
+    /**
+     * Daemon is still running.
+     */
+    private static final XPathQuery RUNNING = new XPathQuery(
+        "/talk[shell and daemon[@id=$hash] and daemon/dir]"
+    );
+
+    /**
+     * Anything else.
+     */
+    private static final XPathQuery ANY = new XPathQuery("/talk");
+
+    /**
+     * Location of the archived log.
+     */
+    private static final XPathQuery LOCATION = new XPathQuery(
+        "/talk/archive/log[@id=$hash]/text()"
+    );
+
     /**
      * Talk.
      */
@@ -94,24 +126,18 @@ public final class Tail {
      */
     @SuppressWarnings("unchecked")
     public InputStream read() throws IOException {
-        final Collection<Map.Entry<String, Tail.Connect>> connects =
-            Arrays.<Map.Entry<String, Tail.Connect>>asList(
-                new AbstractMap.SimpleEntry<String, Tail.Connect>(
-                    String.format(
-                        "/talk/archive/log[@id='%s' and starts-with(.,'s3:')]",
-                        this.hash
-                    ),
+        final Collection<Map.Entry<XPathQuery, Tail.Connect>> connects =
+            Arrays.<Map.Entry<XPathQuery, Tail.Connect>>asList(
+                new AbstractMap.SimpleEntry<XPathQuery, Tail.Connect>(
+                    Tail.ARCHIVED.with(Tail.VAR, this.hash),
                     new Tail.S3Connect(this.xml, this.hash)
                 ),
-                new AbstractMap.SimpleEntry<String, Tail.Connect>(
-                    String.format(
-                        "/talk[shell and daemon[@id='%s'] and daemon/dir]",
-                        this.hash
-                    ),
+                new AbstractMap.SimpleEntry<XPathQuery, Tail.Connect>(
+                    Tail.RUNNING.with(Tail.VAR, this.hash),
                     new Tail.SSHConnect(this.xml)
                 ),
-                new AbstractMap.SimpleEntry<String, Tail.Connect>(
-                    "/talk",
+                new AbstractMap.SimpleEntry<XPathQuery, Tail.Connect>(
+                    Tail.ANY,
                     new Tail.Connect() {
                         @Override
                         public InputStream read() {
@@ -130,8 +156,8 @@ public final class Tail {
                 )
             );
         InputStream stream = null;
-        for (final Map.Entry<String, Tail.Connect> ent : connects) {
-            if (!this.xml.nodes(ent.getKey()).isEmpty()) {
+        for (final Map.Entry<XPathQuery, Tail.Connect> ent : connects) {
+            if (ent.getKey().exists(this.xml)) {
                 stream = ent.getValue().read();
                 break;
             }
@@ -180,12 +206,7 @@ public final class Tail {
         @Override
         public InputStream read() throws IOException {
             final URI uri = URI.create(
-                this.xml.xpath(
-                    String.format(
-                        "/talk/archive/log[@id='%s']/text()",
-                        this.hash
-                    )
-                ).get(0)
+                Tail.LOCATION.with(Tail.VAR, this.hash).xpath(this.xml).get(0)
             );
             final ByteArrayOutputStream baos = new ByteArrayOutputStream();
             Tail.S3Connect.bucket().ocket(uri.getPath().substring(1)).read(
@@ -44,6 +44,7 @@ import com.jcabi.log.Logger;
 import com.jcabi.manifests.Manifests;
 import com.jcabi.xml.XML;
 import com.rultor.agents.AbstractAgent;
+import com.rultor.agents.TalkState;
 import com.rultor.agents.daemons.Home;
 import java.io.IOException;
 import java.net.URI;
@@ -91,6 +92,10 @@ public final class CommentsTag extends AbstractAgent {
      */
     public CommentsTag(final Github ghub) {
         super(
+            new TalkState.Guard().with(
+                TalkState.Fact.WIRE, TalkState.Fact.REQUEST,
+                TalkState.Fact.SUCCESS
+            ),
             "/talk/wire[github-repo and github-issue]",
             "/talk/request[@id and type='release' and success='true']"
         );
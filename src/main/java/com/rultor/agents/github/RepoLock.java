@@ -38,6 +38,7 @@ import com.rultor.spi.Talk;
 import java.io.IOException;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.xembly.Directives;
 
 /**
  * Repo lock.
@@ -45,6 +46,11 @@ import lombok.ToString;
  * <p>It is used by {@link com.rultor.agents.github.qtn.QnAlone}
  * and {@link UnlocksRepo}.</p>
  *
+ * <p>The talk that took the lock gets a {@code /talk/lock} element
+ * with the coordinates of the repo, which is removed on unlock. Only
+ * talks with this element ask Sttc to unlock, no matter which node
+ * took the lock.</p>
+ *
  * @author Yegor Bugayenko (yegor@tpc2.com)
  * @version $Id$
  * @since 1.8.12
@@ -83,20 +89,39 @@ public final class RepoLock {
     public boolean lock(final Talk talk) throws IOException {
         final String name = RepoLock.label(talk);
         final boolean done = this.lock().lock(name);
+        if (done) {
+            try {
+                talk.modify(
+                    new Directives()
+                        .xpath("/talk/lock").remove()
+                        .xpath("/talk").add("lock")
+                        .set(this.repo.coordinates().toString())
+                );
+            } catch (final IOException ex) {
+                this.lock().unlock(name);
+                throw ex;
+            }
+        }
         Logger.info(this, "lock of %s: %B", name, done);
         return done;
     }
 
     /**
-     * Unlock.
+     * Unlock, if the talk holds the lock.
      * @param talk Talk
      * @return TRUE if unlocked
      * @throws IOException If fails
      */
     public boolean unlock(final Talk talk) throws IOException {
-        final String name = RepoLock.label(talk);
-        final boolean done = this.lock().unlock(name);
-        Logger.info(this, "unlock of %s: %B", name, done);
+        final boolean done;
+        if (RepoLock.locked(talk)) {
+            final String name = RepoLock.label(talk);
+            done = this.lock().unlock(name);
+            talk.modify(new Directives().xpath("/talk/lock").remove());
+            Logger.info(this, "unlock of %s: %B", name, done);
+        } else {
+            done = false;
+        }
         return done;
     }
 
@@ -106,10 +131,16 @@ public final class RepoLock {
      * @throws IOException If fails
      */
     private Lock lock() throws IOException {
-        return this.locks.get(
-            String.format("rt-repo-%s", this.repo.coordinates()).replaceAll(
-                "[^a-zA-Z0-9\\-]", "-"
-            )
+        return this.locks.get(this.name());
+    }
+
+    /**
+     * Name of the lock.
+     * @return Name
+     */
+    private String name() {
+        return String.format("rt-repo-%s", this.repo.coordinates()).replaceAll(
+            "[^a-zA-Z0-9\\-]", "-"
         );
     }
 
@@ -122,4 +153,14 @@ public final class RepoLock {
     private static String label(final Talk talk) throws IOException {
         return talk.read().xpath("/talk/@name").get(0);
     }
+
+    /**
+     * Does the talk hold a lock?
+     * @param talk Talk
+     * @return TRUE if it holds
+     * @throws IOException If fails
+     */
+    private static boolean locked(final Talk talk) throws IOException {
+        return !talk.read().nodes("/talk/lock").isEmpty();
+    }
 }
@@ -36,6 +36,7 @@ import com.jcabi.github.Issue;
 import com.jcabi.log.Logger;
 import com.jcabi.xml.XML;
 import com.rultor.agents.AbstractAgent;
+import com.rultor.agents.TalkState;
 import com.rultor.agents.daemons.Home;
 import java.io.IOException;
 import java.net.URI;
@@ -79,6 +80,10 @@ public final class Reports extends AbstractAgent {
      */
     public Reports(final Github ghub) {
         super(
+            new TalkState.Guard().with(
+                TalkState.Fact.WIRE, TalkState.Fact.REQUEST,
+                TalkState.Fact.SUCCESS
+            ),
             "/talk/wire[github-repo and github-issue]",
             "/talk/request[@id and success]"
         );
@@ -39,6 +39,7 @@ import com.jcabi.github.Smarts;
 import com.jcabi.log.Logger;
 import com.jcabi.xml.XML;
 import com.rultor.agents.AbstractAgent;
+import com.rultor.agents.TalkState;
 import com.rultor.agents.daemons.Home;
 import com.rultor.spi.Profile;
 import java.io.IOException;
@@ -86,6 +87,7 @@ public final class Understands extends AbstractAgent {
      */
     public Understands(final Github ghub, final Question qtn) {
         super(
+            new TalkState.Guard().with(TalkState.Fact.WIRE),
             "/talk[@later='true']",
             "/talk/wire[github-repo and github-issue]"
         );
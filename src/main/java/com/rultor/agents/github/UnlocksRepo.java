@@ -59,7 +59,7 @@ public final class UnlocksRepo implements SuperAgent {
      * Which talks should be unlocked.
      */
     private static final String XPATH = StringUtils.join(
-        "/talk[not(request) and not(daemon) and not(shell)",
+        "/talk[lock and not(request) and not(daemon) and not(shell)",
         " and wire/github-repo and wire/github-issue]"
     );
 
@@ -98,7 +98,7 @@ public final class UnlocksRepo implements SuperAgent {
     private void unlock(final Talk talk) throws IOException {
         final XML xml = talk.read();
         if (!xml.nodes(UnlocksRepo.XPATH).isEmpty()) {
-            final Issue issue = new TalkIssues(this.github, talk.read()).get();
+            final Issue issue = new TalkIssues(this.github, xml).get();
             if (new RepoLock(this.locks, issue.repo()).unlock(talk)) {
                 Logger.info(
                     this, "%s unlocked by %s",
@@ -39,6 +39,7 @@ import com.rultor.agents.github.Answer;
 import com.rultor.agents.github.Question;
 import com.rultor.agents.github.Req;
 import com.rultor.spi.Profile;
+import com.rultor.spi.XPathQuery;
 import java.io.IOException;
 import java.net.URI;
 import java.util.Collection;
@@ -74,7 +75,7 @@ public final class QnAskedBy implements Question {
     /**
      * XPath.
      */
-    private final transient String xpath;
+    private final transient XPathQuery xpath;
 
     /**
      * Original question.
@@ -88,6 +89,18 @@ public final class QnAskedBy implements Question {
      * @param qtn Original question
      */
     public QnAskedBy(final Profile prof, final String path,
+        final Question qtn) {
+        this(prof, new XPathQuery(path), qtn);
+    }
+
+    /**
+     * Ctor.
+     * @param prof Profile
+     * @param path XPath in profile with a list of logins
+     * @param qtn Original question
+     * @since 2.0
+     */
+    public QnAskedBy(final Profile prof, final XPathQuery path,
         final Question qtn) {
         this.profile = prof;
         this.xpath = path;
@@ -136,7 +149,7 @@ public final class QnAskedBy implements Question {
         final Collection<String> logins = new LinkedList<String>();
         final XML xml = this.profile.read();
         logins.addAll(new Crew(repo).names());
-        logins.addAll(xml.xpath(this.xpath));
+        logins.addAll(this.xpath.xpath(xml));
         return logins;
     }
 
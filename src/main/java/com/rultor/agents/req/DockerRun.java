@@ -140,6 +140,42 @@ final class DockerRun {
         );
     }
 
+    /**
+     * Make a list of directories inside the container, which have to
+     * be persisted between builds of the repository.
+     * @return Directories
+     * @throws IOException If fails
+     * @since 2.0
+     */
+    public String caches() throws IOException {
+        final Collection<String> dirs = new LinkedList<String>();
+        final Collection<XML> nodes = this.profile.read().nodes(
+            "/p/entry[@key='docker']/entry[@key='cache']"
+        );
+        if (!nodes.isEmpty()) {
+            final XML node = nodes.iterator().next();
+            if (node.nodes("item").isEmpty()) {
+                dirs.addAll(DockerRun.lines(node));
+            } else {
+                for (final String dir : node.xpath("item/text()")) {
+                    dirs.add(dir.trim());
+                }
+            }
+        }
+        for (final String dir : dirs) {
+            if (!dir.startsWith("/") || dir.contains(":")) {
+                throw new Profile.ConfigException(
+                    String.format(
+                        // @checkstyle LineLength (1 line)
+                        "docker cache `%s` must be an absolute path without colons, see http://doc.rultor.com/reference.html#docker",
+                        dir
+                    )
+                );
+            }
+        }
+        return DockerRun.enlist(dirs);
+    }
+
     /**
      * Get xpath.
      * @return XML
@@ -34,6 +34,9 @@ import com.jcabi.log.Logger;
 import com.jcabi.xml.XML;
 import com.rultor.Time;
 import com.rultor.agents.AbstractAgent;
+import com.rultor.agents.TalkState;
+import com.rultor.spi.XPathQuery;
+import java.util.List;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.xembly.Directive;
@@ -53,13 +56,39 @@ public final class EndsRequest extends AbstractAgent {
     /**
      * Log highligts text node.
      */
-    private static final String HIGHLIGHTS_TEXT = "highlights/text()";
+    private static final XPathQuery HIGHLIGHTS =
+        new XPathQuery("/talk/daemon/highlights/text()");
+
+    /**
+     * Exit code of the daemon.
+     */
+    private static final XPathQuery CODE =
+        new XPathQuery("/talk/daemon/code/text()");
+
+    /**
+     * When the daemon was started.
+     */
+    private static final XPathQuery STARTED =
+        new XPathQuery("/talk/daemon/started/text()");
+
+    /**
+     * When the daemon was ended.
+     */
+    private static final XPathQuery ENDED =
+        new XPathQuery("/talk/daemon/ended/text()");
 
     /**
      * Ctor.
      */
     public EndsRequest() {
         super(
+            new TalkState.Guard()
+                .with(
+                    TalkState.Fact.REQUEST, TalkState.Fact.DAEMON,
+                    TalkState.Fact.STARTED, TalkState.Fact.ENDED,
+                    TalkState.Fact.CODE
+                )
+                .without(TalkState.Fact.SUCCESS),
             "/talk/request[type and not(success)]",
             "/talk/daemon[started and ended and code]"
         );
@@ -67,18 +96,19 @@ public final class EndsRequest extends AbstractAgent {
 
     @Override
     public Iterable<Directive> process(final XML xml) {
-        final XML daemon = xml.nodes("/talk/daemon").get(0);
-        final int code = Integer.parseInt(daemon.xpath("code/text()").get(0));
-        final long msec = new Time(daemon.xpath("ended/text()").get(0)).msec()
-            - new Time(daemon.xpath("started/text()").get(0)).msec();
+        final int code = Integer.parseInt(
+            EndsRequest.CODE.xpath(xml).get(0)
+        );
+        final long msec = new Time(EndsRequest.ENDED.xpath(xml).get(0)).msec()
+            - new Time(EndsRequest.STARTED.xpath(xml).get(0)).msec();
         final boolean success = code == 0;
         Logger.info(this, "request finished: %b", success);
         final Directives dirs = new Directives().xpath("/talk/request")
             .add("msec").set(Long.toString(msec)).up()
             .add("success").set(Boolean.toString(success));
-        if (!daemon.xpath(EndsRequest.HIGHLIGHTS_TEXT).isEmpty()) {
-            dirs.up().add("highlights")
-                .set(daemon.xpath(EndsRequest.HIGHLIGHTS_TEXT).get(0));
+        final List<String> highlights = EndsRequest.HIGHLIGHTS.xpath(xml);
+        if (!highlights.isEmpty()) {
+            dirs.up().add("highlights").set(highlights.get(0));
         }
         return dirs;
     }
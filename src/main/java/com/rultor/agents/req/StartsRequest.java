@@ -38,7 +38,9 @@ import com.google.common.collect.Sets;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.log.Logger;
 import com.jcabi.xml.XML;
+import com.rultor.Time;
 import com.rultor.agents.AbstractAgent;
+import com.rultor.agents.TalkState;
 import com.rultor.spi.Profile;
 import java.io.IOException;
 import java.util.Collections;
@@ -73,6 +75,9 @@ public final class StartsRequest extends AbstractAgent {
      */
     public StartsRequest(final Profile prof) {
         super(
+            new TalkState.Guard()
+                .with(TalkState.Fact.REQUEST)
+                .without(TalkState.Fact.SUCCESS, TalkState.Fact.DAEMON),
             "/talk/request[@id and type and not(success)]",
             "/talk[not(daemon)]"
         );
@@ -84,6 +89,11 @@ public final class StartsRequest extends AbstractAgent {
         final XML req = xml.nodes("//request").get(0);
         final String type = req.xpath("type/text()").get(0);
         final String hash = req.xpath("@id").get(0);
+        final Directives dirs = new Directives().xpath("/talk")
+            .add("daemon")
+            .attr("id", hash)
+            .add("title").set(type).up()
+            .add("queued").set(new Time().iso()).up();
         String script;
         try {
             script = this.script(
@@ -91,17 +101,36 @@ public final class StartsRequest extends AbstractAgent {
                 type,
                 xml.xpath("/talk/@name").get(0)
             );
+            dirs.append(this.image());
             Logger.info(this, "request %s/%s started", type, hash);
         } catch (final Profile.ConfigException ex) {
             script = Logger.format(
                 "cat <<EOT\n%[exception]s\nEOT\nexit -1", ex
             );
         }
-        return new Directives().xpath("/talk")
-            .add("daemon")
-            .attr("id", hash)
-            .add("title").set(type).up()
-            .add("script").set(script);
+        return dirs.add("script").set(script);
+    }
+
+    /**
+     * Docker image to pull for the daemon, if any.
+     * @return Directives
+     * @throws IOException If fails
+     * @since 2.0
+     */
+    private Iterable<Directive> image() throws IOException {
+        final Profile.Defaults defaults = new Profile.Defaults(this.profile);
+        final Directives dirs = new Directives();
+        if (defaults.text(
+            "/p/entry[@key='docker']/entry[@key='directory']", ""
+        ).isEmpty()) {
+            dirs.add("image").set(
+                defaults.text(
+                    "/p/entry[@key='docker']/entry[@key='image']",
+                    "yegor256/rultor"
+                )
+            ).up();
+        }
+        return dirs;
     }
 
     /**
@@ -205,6 +234,7 @@ public final class StartsRequest extends AbstractAgent {
                 ""
             )
         );
+        vars.put("caches", docker.caches());
         vars.put("scripts", docker.script());
         return vars.build();
     }
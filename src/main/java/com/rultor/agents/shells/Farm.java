@@ -0,0 +1,288 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.shells;
+
+import com.google.common.base.Optional;
+import com.jcabi.aspects.Cacheable;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Tv;
+import com.jcabi.immutable.Array;
+import com.jcabi.log.Logger;
+import com.jcabi.log.VerboseThreads;
+import com.jcabi.ssh.Shell;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.io.input.NullInputStream;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Farm of build hosts.
+ *
+ * <p>Hosts are probed all together, in parallel, not more often than
+ * once a minute: we get their load averages and the number of daemons
+ * running there. Daemons placed since the last probe are counted
+ * by the farm itself.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = { "hosts", "limit" })
+public final class Farm {
+
+    /**
+     * Command that prints load average and the number of running daemons.
+     */
+    private static final String PROBE = StringUtils.join(
+        "cut -d ' ' -f 1 /proc/loadavg;",
+        " for d in \"${TMPDIR:-/tmp}\"/rultor-*; do",
+        " if [ -e \"${d}/pid\" -a ! -e \"${d}/status\" ]; then echo; fi;",
+        " done | wc -l"
+    );
+
+    /**
+     * Hosts.
+     */
+    private final transient Array<Host> hosts;
+
+    /**
+     * Maximum load average of an eligible host.
+     */
+    private final transient double limit;
+
+    /**
+     * Ctor.
+     * @param list Hosts
+     */
+    public Farm(final Host... list) {
+        this(new Array<Host>(list), (double) Tv.THIRTY);
+    }
+
+    /**
+     * Ctor.
+     * @param list Hosts
+     * @param max Maximum load average of an eligible host
+     */
+    public Farm(final Iterable<Host> list, final double max) {
+        this.hosts = new Array<Host>(list);
+        this.limit = max;
+    }
+
+    /**
+     * All hosts of the farm.
+     * @return Hosts
+     */
+    public Iterable<Host> hosts() {
+        return this.hosts;
+    }
+
+    /**
+     * Current load of the farm, probed once a minute.
+     * @return Load
+     */
+    @Cacheable(lifetime = 1, unit = TimeUnit.MINUTES)
+    public Farm.Load load() {
+        final ExecutorService svc = Executors.newFixedThreadPool(
+            Math.max(this.hosts.size(), 1), new VerboseThreads(this)
+        );
+        try {
+            final Map<Host, Future<double[]>> futures =
+                new HashMap<Host, Future<double[]>>(this.hosts.size());
+            for (final Host host : this.hosts) {
+                futures.put(host, svc.submit(Farm.probe(host)));
+            }
+            final Collection<Farm.Usage> usages =
+                new ArrayList<Farm.Usage>(this.hosts.size());
+            for (final Map.Entry<Host, Future<double[]>> ent
+                : futures.entrySet()) {
+                final double[] probe = Farm.get(ent.getKey(), ent.getValue());
+                if (probe.length == 0) {
+                    continue;
+                }
+                usages.add(
+                    new Farm.Usage(ent.getKey(), probe[0], (int) probe[1])
+                );
+            }
+            return new Farm.Load(usages, this.limit);
+        } finally {
+            svc.shutdownNow();
+        }
+    }
+
+    /**
+     * Make a probe of a host.
+     * @param host The host
+     * @return Load average and number of daemons
+     */
+    private static Callable<double[]> probe(final Host host) {
+        return new Callable<double[]>() {
+            @Override
+            public double[] call() throws IOException {
+                final String[] lines = new Shell.Plain(
+                    new Shell.Safe(host.shell())
+                ).exec(Farm.PROBE).trim().split("\\s+");
+                return new double[] {
+                    Double.parseDouble(lines[0]),
+                    Double.parseDouble(lines[1]),
+                };
+            }
+        };
+    }
+
+    /**
+     * Get result of a probe.
+     * @param host The host
+     * @param future Future result
+     * @return Load average and number of daemons, or empty if failed
+     */
+    private static double[] get(final Host host,
+        final Future<double[]> future) {
+        double[] probe;
+        try {
+            probe = future.get(1L, TimeUnit.MINUTES);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } catch (final ExecutionException ex) {
+            Logger.warn(
+                Farm.class, "%s is not available: %[exception]s", host, ex
+            );
+            probe = new double[0];
+        } catch (final TimeoutException ex) {
+            Logger.warn(Farm.class, "%s doesn't respond", host);
+            probe = new double[0];
+        }
+        return probe;
+    }
+
+    /**
+     * Usage of a host.
+     */
+    private static final class Usage {
+        /**
+         * The host.
+         */
+        private final transient Host host;
+        /**
+         * Load average.
+         */
+        private final transient double avg;
+        /**
+         * Daemons running.
+         */
+        private final transient int daemons;
+        /**
+         * Ctor.
+         * @param hst Host
+         * @param load Load average
+         * @param total Daemons running
+         */
+        Usage(final Host hst, final double load, final int total) {
+            this.host = hst;
+            this.avg = load;
+            this.daemons = total;
+        }
+        /**
+         * Usage of the same host with one more daemon placed there.
+         * @return New usage
+         */
+        Farm.Usage plus() {
+            return new Farm.Usage(this.host, this.avg + 1.0d, this.daemons + 1);
+        }
+    }
+
+    /**
+     * Load of the farm, as it was probed, plus daemons placed since then.
+     */
+    public static final class Load {
+        /**
+         * Usages of available hosts.
+         */
+        private final transient List<Farm.Usage> usages;
+        /**
+         * Maximum load average of an eligible host.
+         */
+        private final transient double limit;
+        /**
+         * Ctor.
+         * @param list Usages of available hosts
+         * @param max Maximum load average of an eligible host
+         */
+        Load(final Collection<Farm.Usage> list, final double max) {
+            this.usages = new ArrayList<Farm.Usage>(list);
+            this.limit = max;
+        }
+        /**
+         * Find the least loaded eligible host for a new daemon and count
+         * the daemon there.
+         * @return Host, if there is one
+         */
+        public Optional<Host> place() {
+            synchronized (this.usages) {
+                int best = -1;
+                for (int idx = 0; idx < this.usages.size(); ++idx) {
+                    final Farm.Usage usage = this.usages.get(idx);
+                    if (usage.daemons >= usage.host.cap()
+                        || usage.avg >= this.limit) {
+                        continue;
+                    }
+                    if (best < 0 || usage.avg < this.usages.get(best).avg) {
+                        best = idx;
+                    }
+                }
+                final Optional<Host> host;
+                if (best < 0) {
+                    host = Optional.absent();
+                } else {
+                    final Farm.Usage placed = this.usages.get(best).plus();
+                    this.usages.set(best, placed);
+                    host = Optional.of(placed.host);
+                }
+                return host;
+            }
+        }
+    }
+
+}
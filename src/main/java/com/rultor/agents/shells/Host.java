@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.shells;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.ssh.SSH;
+import com.jcabi.ssh.Shell;
+import java.net.UnknownHostException;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.xembly.Directives;
+
+/**
+ * Build host, where daemons run.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString(of = { "addr", "port", "login", "max" })
+@EqualsAndHashCode(of = { "addr", "port", "login" })
+public final class Host {
+
+    /**
+     * IP address of the server.
+     */
+    private final transient String addr;
+
+    /**
+     * Port to use.
+     */
+    private final transient int port;
+
+    /**
+     * User name.
+     */
+    private final transient String login;
+
+    /**
+     * Private SSH key.
+     */
+    private final transient String key;
+
+    /**
+     * Maximum number of daemons running at the same time.
+     */
+    private final transient int max;
+
+    /**
+     * Constructor, for a host without a limit of daemons.
+     * @param adr IP address
+     * @param prt Port of server
+     * @param user Login
+     * @param priv Private SSH key
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public Host(final String adr, final int prt,
+        final String user, final String priv) {
+        this(adr, prt, user, priv, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructor.
+     * @param adr IP address
+     * @param prt Port of server
+     * @param user Login
+     * @param priv Private SSH key
+     * @param cap Maximum number of daemons running at the same time
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public Host(final String adr, final int prt,
+        final String user, final String priv, final int cap) {
+        this.addr = adr;
+        this.port = prt;
+        this.login = user;
+        this.key = priv;
+        this.max = cap;
+    }
+
+    /**
+     * Maximum number of daemons running at the same time.
+     * @return Number of daemons
+     */
+    public int cap() {
+        return this.max;
+    }
+
+    /**
+     * Get shell to the host.
+     *
+     * <p>If the host is this machine and we're the user to log in,
+     * a {@link LocalShell} is returned instead of SSH.
+     *
+     * @return Shell
+     * @throws UnknownHostException If fails
+     */
+    public Shell shell() throws UnknownHostException {
+        final Shell shell;
+        if (LocalShell.local(this.addr, this.login)) {
+            shell = new LocalShell();
+        } else {
+            shell = new SSH(this.addr, this.port, this.login, this.key);
+        }
+        return shell;
+    }
+
+    /**
+     * Directives to register this host as a shell of the daemon.
+     * @param hash Daemon ID
+     * @return Directives
+     */
+    public Directives register(final String hash) {
+        return new Directives()
+            .xpath("/talk").add("shell")
+            .attr("id", hash)
+            .add("host").set(this.addr).up()
+            .add("port").set(Integer.toString(this.port)).up()
+            .add("login").set(this.login).up()
+            .add("key").set(this.key).up().up();
+    }
+
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.shells;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.log.VerboseThreads;
+import com.jcabi.ssh.Shell;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Shell on this machine, without SSH.
+ *
+ * <p>Commands are executed by {@code bash} in the home directory
+ * of the current user, exactly where SSH would execute them if
+ * we logged in as this user to this machine. Standard input is
+ * sent to the command and closed, output and error streams are
+ * copied while it is running.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = "home")
+public final class LocalShell implements Shell {
+
+    /**
+     * Threads copying streams.
+     */
+    private static final ExecutorService PIPES =
+        Executors.newCachedThreadPool(new VerboseThreads(LocalShell.class));
+
+    /**
+     * Directory to execute commands in.
+     */
+    private final transient String home;
+
+    /**
+     * Ctor.
+     */
+    public LocalShell() {
+        this(new File(System.getProperty("user.home")));
+    }
+
+    /**
+     * Ctor.
+     * @param dir Directory to execute commands in
+     */
+    public LocalShell(final File dir) {
+        this.home = dir.getAbsolutePath();
+    }
+
+    /**
+     * Is it a shell on this machine?
+     * @param host Host name
+     * @param login User name
+     * @return TRUE if the host is local and the user is us
+     */
+    public static boolean local(final String host, final String login) {
+        return ("localhost".equals(host) || "127.0.0.1".equals(host))
+            && login.equals(System.getProperty("user.name"));
+    }
+
+    @Override
+    public int exec(final String command, final InputStream stdin,
+        final OutputStream stdout, final OutputStream stderr)
+        throws IOException {
+        final Process proc = new ProcessBuilder("bash", "-c", command)
+            .directory(new File(this.home))
+            .start();
+        final Future<?> input = LocalShell.PIPES.submit(
+            LocalShell.pipe(stdin, proc.getOutputStream(), true)
+        );
+        final Future<?> output = LocalShell.PIPES.submit(
+            LocalShell.pipe(proc.getInputStream(), stdout, false)
+        );
+        final Future<?> error = LocalShell.PIPES.submit(
+            LocalShell.pipe(proc.getErrorStream(), stderr, false)
+        );
+        try {
+            final int code = proc.waitFor();
+            output.get();
+            error.get();
+            input.cancel(true);
+            return code;
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            proc.destroy();
+            throw new IllegalStateException(ex);
+        } catch (final ExecutionException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    /**
+     * Copy one stream to another.
+     * @param src Source
+     * @param dest Destination
+     * @param close Close destination when done
+     * @return Callable
+     */
+    private static Callable<Long> pipe(final InputStream src,
+        final OutputStream dest, final boolean close) {
+        return new Callable<Long>() {
+            @Override
+            public Long call() throws IOException {
+                try {
+                    return (long) IOUtils.copy(src, dest);
+                } finally {
+                    if (close) {
+                        IOUtils.closeQuietly(dest);
+                    } else {
+                        dest.flush();
+                    }
+                }
+            }
+        };
+    }
+
+}
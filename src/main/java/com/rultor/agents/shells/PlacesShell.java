@@ -29,77 +29,66 @@
  */
 package com.rultor.agents.shells;
 
+import com.google.common.base.Optional;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.log.Logger;
 import com.jcabi.xml.XML;
 import com.rultor.agents.AbstractAgent;
+import com.rultor.agents.TalkState;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.xembly.Directive;
 import org.xembly.Directives;
 
 /**
- * Registers shell.
+ * Places a new daemon to the least loaded host of the farm.
+ *
+ * <p>If there is no eligible host at the moment, nothing is
+ * registered and the daemon waits for the next attempt.
  *
  * @author Yegor Bugayenko (yegor@tpc2.com)
  * @version $Id$
- * @since 1.0
+ * @since 2.0
  */
 @Immutable
 @ToString
-@EqualsAndHashCode(callSuper = false, of = { "addr", "port", "login", "key" })
-public final class RegistersShell extends AbstractAgent {
-
-    /**
-     * IP address of the server.
-     */
-    private final transient String addr;
-
-    /**
-     * Port to use.
-     */
-    private final transient int port;
-
-    /**
-     * User name.
-     */
-    private final transient String login;
+@EqualsAndHashCode(callSuper = false, of = "farm")
+public final class PlacesShell extends AbstractAgent {
 
     /**
-     * Private SSH key.
+     * Farm of hosts.
      */
-    private final transient String key;
+    private final transient Farm farm;
 
     /**
-     * Constructor.
-     * @param adr IP address
-     * @param prt Port of server
-     * @param user Login
-     * @param priv Private SSH key
-     * @checkstyle ParameterNumberCheck (6 lines)
+     * Ctor.
+     * @param hosts Farm of hosts
      */
-    public RegistersShell(final String adr, final int prt,
-        final String user, final String priv) {
-        super("/talk[daemon and not(shell)]");
-        this.addr = adr;
-        this.login = user;
-        this.key = priv;
-        this.port = prt;
+    public PlacesShell(final Farm hosts) {
+        super(
+            new TalkState.Guard()
+                .with(TalkState.Fact.DAEMON)
+                .without(TalkState.Fact.SHELL, TalkState.Fact.QUEUED),
+            "/talk[daemon[not(queued)] and not(shell)]"
+        );
+        this.farm = hosts;
     }
 
     @Override
     public Iterable<Directive> process(final XML xml) {
         final String hash = xml.xpath("/talk/daemon/@id").get(0);
-        Logger.info(
-            this, "shell %s registered as %s:%d in %s",
-            hash, this.addr, this.port, xml.xpath("/talk/@name").get(0)
-        );
-        return new Directives()
-            .xpath("/talk").add("shell")
-            .attr("id", hash)
-            .add("host").set(this.addr).up()
-            .add("port").set(Integer.toString(this.port)).up()
-            .add("login").set(this.login).up()
-            .add("key").set(this.key);
+        final String name = xml.xpath("/talk/@name").get(0);
+        final Optional<Host> host = this.farm.load().place();
+        final Iterable<Directive> dirs;
+        if (host.isPresent()) {
+            Logger.info(
+                this, "shell %s placed to %s in %s", hash, host.get(), name
+            );
+            dirs = host.get().register(hash);
+        } else {
+            Logger.info(this, "no host available for %s in %s", hash, name);
+            dirs = new Directives();
+        }
+        return dirs;
     }
 }
@@ -32,6 +32,7 @@ package com.rultor.agents.shells;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.xml.XML;
 import com.rultor.agents.AbstractAgent;
+import com.rultor.agents.TalkState;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.xembly.Directive;
@@ -54,6 +55,9 @@ public final class RemovesShell extends AbstractAgent {
      */
     public RemovesShell() {
         super(
+            new TalkState.Guard()
+                .with(TalkState.Fact.SHELL)
+                .without(TalkState.Fact.DAEMON),
             "/talk/shell[@id]",
             "/talk[not(daemon)]"
         );
@@ -30,7 +30,6 @@
 package com.rultor.agents.shells;
 
 import com.jcabi.aspects.Immutable;
-import com.jcabi.ssh.SSH;
 import com.jcabi.ssh.Shell;
 import com.jcabi.xml.XML;
 import java.net.UnknownHostException;
@@ -64,16 +63,20 @@ public final class TalkShells {
 
     /**
      * Find and get shell.
+     *
+     * <p>If the shell is on this machine and we're the user to log in,
+     * a {@link LocalShell} is returned instead of SSH.
+     *
      * @return Issue
      * @throws UnknownHostException If fails
      */
     public Shell get() throws UnknownHostException {
         final XML shell = this.xml.nodes("/talk/shell").get(0);
-        return new SSH(
+        return new Host(
             shell.xpath("host/text()").get(0),
             Integer.parseInt(shell.xpath("port/text()").get(0)),
             shell.xpath("login/text()").get(0),
             shell.xpath("key/text()").get(0)
-        );
+        ).shell();
     }
 }
@@ -0,0 +1,272 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.shells;
+
+import com.google.common.base.Joiner;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Tv;
+import com.jcabi.log.Logger;
+import com.jcabi.log.VerboseThreads;
+import com.jcabi.ssh.SSH;
+import com.jcabi.xml.XML;
+import com.rultor.spi.SuperAgent;
+import com.rultor.spi.Talk;
+import com.rultor.spi.Talks;
+import com.rultor.spi.XPathQuery;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.CharEncoding;
+
+/**
+ * Pulls Docker images recently used by repositories to all hosts
+ * of the farm, in background.
+ *
+ * <p>Every repository remembers the image of its last daemon for a day,
+ * no matter whether the daemon is still running. Images of all these
+ * repositories are pulled before their next daemons need them, and are
+ * refreshed not more often than once an hour. Every host keeps a record
+ * of images used there; when their total size goes over the budget,
+ * images used least recently are removed.
+ *
+ * <p>It is supposed to work with talks already loaded in the tick,
+ * see {@link Talks.Loaded}, since it reads all active talks.
+ *
+ * <p>Hosts are contacted all together, in parallel, and not more
+ * often than once in ten minutes for the same set of images.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = { "farm", "budget" })
+public final class WarmsImages implements SuperAgent {
+
+    /**
+     * Image of the daemon.
+     */
+    private static final XPathQuery IMAGE = new XPathQuery(
+        "/talk/daemon/image/text()"
+    );
+
+    /**
+     * Repository of the talk.
+     */
+    private static final XPathQuery REPO = new XPathQuery(
+        "/talk/wire/github-repo/text()"
+    );
+
+    /**
+     * Images used recently, by repositories.
+     */
+    private static final Cache<String, String> RECENT =
+        CacheBuilder.newBuilder()
+            .expireAfterWrite(1L, TimeUnit.DAYS)
+            .build();
+
+    /**
+     * Command that starts the script in background, with its log
+     * rotated when it grows over a megabyte.
+     */
+    private static final String START = Joiner.on(" && ").join(
+        "dir=\"${HOME}/.rultor/images\"",
+        "mkdir -p \"${dir}\"",
+        "log=\"${dir}/warm.log\"",
+        // @checkstyle LineLength (1 line)
+        "if [ -f \"${log}\" ] && [ $(stat -c %s \"${log}\") -gt 1048576 ]; then mv \"${log}\" \"${log}.1\"; fi",
+        "file=$(mktemp \"${dir}/warm-XXXX\")",
+        "cat > \"${file}\"",
+        "( nohup bash \"${file}\" </dev/null >>\"${log}\" 2>&1 & )"
+    );
+
+    /**
+     * Sets of images warmed up recently, to skip them for a while.
+     */
+    private static final Cache<String, Boolean> WARMED =
+        CacheBuilder.newBuilder()
+            .expireAfterWrite((long) Tv.TEN, TimeUnit.MINUTES)
+            .build();
+
+    /**
+     * Farm of hosts.
+     */
+    private final transient Farm farm;
+
+    /**
+     * Disk budget for images, in gigabytes.
+     */
+    private final transient int budget;
+
+    /**
+     * Ctor.
+     * @param hosts Farm of hosts
+     * @param gbs Disk budget for images on each host, in gigabytes
+     */
+    public WarmsImages(final Farm hosts, final int gbs) {
+        this.farm = hosts;
+        this.budget = gbs;
+    }
+
+    @Override
+    public void execute(final Talks talks) throws IOException {
+        for (final Talk talk : talks.active()) {
+            WarmsImages.remember(talk.read());
+        }
+        final Collection<String> images = new TreeSet<String>(
+            WarmsImages.RECENT.asMap().values()
+        );
+        final String key = Joiner.on(' ').join(images);
+        if (images.isEmpty() || WarmsImages.WARMED.getIfPresent(key) != null) {
+            return;
+        }
+        WarmsImages.WARMED.put(key, true);
+        final String script = this.script(images);
+        final Collection<Host> hosts = Lists.newArrayList(this.farm.hosts());
+        final ExecutorService svc = Executors.newFixedThreadPool(
+            Math.max(hosts.size(), 1), new VerboseThreads(this)
+        );
+        try {
+            final Map<Host, Future<?>> futures =
+                new HashMap<Host, Future<?>>(hosts.size());
+            for (final Host host : hosts) {
+                futures.put(host, svc.submit(this.warm(host, script)));
+            }
+            for (final Map.Entry<Host, Future<?>> ent : futures.entrySet()) {
+                WarmsImages.await(ent.getKey(), ent.getValue());
+            }
+            Logger.info(
+                this, "%d image(s) are warming up at %d host(s)",
+                images.size(), hosts.size()
+            );
+        } finally {
+            svc.shutdownNow();
+        }
+    }
+
+    /**
+     * Remember the image used by the repository of the talk, if any.
+     * @param xml Talk
+     */
+    private static void remember(final XML xml) {
+        final Collection<String> image = WarmsImages.IMAGE.xpath(xml);
+        if (!image.isEmpty()) {
+            final Collection<String> repo = WarmsImages.REPO.xpath(xml);
+            final String key;
+            if (repo.isEmpty()) {
+                key = xml.xpath("/talk/@name").get(0);
+            } else {
+                key = repo.iterator().next();
+            }
+            WarmsImages.RECENT.put(key, image.iterator().next());
+        }
+    }
+
+    /**
+     * Start warming up at the host, in background.
+     * @param host The host
+     * @param script Bash script
+     * @return Task
+     */
+    private Callable<Integer> warm(final Host host, final String script) {
+        return new Callable<Integer>() {
+            @Override
+            public Integer call() throws IOException {
+                return host.shell().exec(
+                    WarmsImages.START,
+                    IOUtils.toInputStream(script, CharEncoding.UTF_8),
+                    Logger.stream(Level.INFO, WarmsImages.this),
+                    Logger.stream(Level.WARNING, WarmsImages.this)
+                );
+            }
+        };
+    }
+
+    /**
+     * Wait for the start of warming up at the host.
+     * @param host The host
+     * @param future Future result
+     */
+    private static void await(final Host host, final Future<?> future) {
+        try {
+            future.get(1L, TimeUnit.MINUTES);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } catch (final ExecutionException ex) {
+            Logger.warn(
+                WarmsImages.class, "can't warm images at %s: %[exception]s",
+                host, ex
+            );
+        } catch (final TimeoutException ex) {
+            Logger.warn(WarmsImages.class, "%s doesn't respond", host);
+        }
+    }
+
+    /**
+     * Make a script for the images.
+     * @param images Images to pull
+     * @return Bash script
+     * @throws IOException If fails
+     */
+    private String script(final Collection<String> images)
+        throws IOException {
+        final StringBuilder list = new StringBuilder(0);
+        for (final String image : images) {
+            list.append(' ').append(SSH.escape(image));
+        }
+        return Joiner.on('\n').join(
+            String.format("budget=%d", this.budget),
+            String.format("images=(%s )", list),
+            IOUtils.toString(
+                this.getClass().getResourceAsStream("warm.sh"),
+                CharEncoding.UTF_8
+            )
+        );
+    }
+
+}
@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.twitter;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.log.Logger;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.ToString;
+
+/**
+ * Twitter that posts in background.
+ *
+ * <p>Messages are queued and posted one by one by {@link #publish()},
+ * which the owner of the object has to call regularly, in its own
+ * thread, not more often than once per pause; so a slow Twitter API
+ * never delays the agents. The queue belongs to the owner of the object,
+ * which has to use one object for all agents, since there is one Twitter
+ * account. When the queue is full, new messages are dropped. The same
+ * message is never queued twice. When posting fails, no matter how, it
+ * is retried after a pause that doubles after every failure, until it
+ * is dropped after a few attempts.
+ *
+ * <p>The class is NOT immutable and is thread-safe.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@ToString(of = "origin")
+public final class AsyncTwitter implements Twitter {
+
+    /**
+     * How many times to try to post a message.
+     */
+    private static final int ATTEMPTS = Tv.FIVE;
+
+    /**
+     * Original Twitter.
+     */
+    private final transient Twitter origin;
+
+    /**
+     * Messages waiting to be posted.
+     */
+    private final transient BlockingQueue<String> queue;
+
+    /**
+     * Pause between posts, in msec.
+     */
+    private final transient long pause;
+
+    /**
+     * Failed attempts to post the first message in the queue.
+     */
+    private final transient AtomicInteger failures;
+
+    /**
+     * When to try again, in msec.
+     */
+    private final transient AtomicLong after;
+
+    /**
+     * Ctor.
+     * @param twt Original Twitter
+     * @param msgs Queue of messages
+     */
+    public AsyncTwitter(final Twitter twt, final BlockingQueue<String> msgs) {
+        this(twt, msgs, TimeUnit.MINUTES.toMillis(1L));
+    }
+
+    /**
+     * Ctor.
+     * @param twt Original Twitter
+     * @param msgs Queue of messages
+     * @param msec Pause between posts, in msec
+     */
+    public AsyncTwitter(final Twitter twt, final BlockingQueue<String> msgs,
+        final long msec) {
+        this.origin = twt;
+        this.queue = msgs;
+        this.pause = msec;
+        this.failures = new AtomicInteger();
+        this.after = new AtomicLong();
+    }
+
+    @Override
+    public void post(final String msg) {
+        if (this.queue.contains(msg)) {
+            Logger.info(this, "tweet is already queued: %s", msg);
+        } else if (!this.queue.offer(msg)) {
+            Logger.warn(this, "too many tweets queued, dropped: %s", msg);
+        }
+    }
+
+    /**
+     * Pause between posts.
+     * @return Pause, in msec
+     */
+    public long pause() {
+        return this.pause;
+    }
+
+    /**
+     * Post the first message in the queue, if it's time.
+     * @return TRUE if posted
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    public boolean publish() {
+        final String msg = this.queue.peek();
+        boolean posted = false;
+        if (msg != null
+            && System.currentTimeMillis() >= this.after.get()) {
+            try {
+                this.origin.post(msg);
+                this.queue.remove(msg);
+                this.failures.set(0);
+                posted = true;
+            // @checkstyle IllegalCatchCheck (1 line)
+            } catch (final Exception ex) {
+                final int fails = this.failures.incrementAndGet();
+                if (fails >= AsyncTwitter.ATTEMPTS) {
+                    this.queue.remove(msg);
+                    this.failures.set(0);
+                    Logger.warn(
+                        this, "tweet dropped after %d attempts: %s",
+                        fails, msg
+                    );
+                } else {
+                    this.after.set(
+                        System.currentTimeMillis() + (this.pause << fails)
+                    );
+                    Logger.warn(
+                        this, "tweet failed, attempt #%d: %[exception]s",
+                        fails, ex
+                    );
+                }
+            }
+        }
+        return posted;
+    }
+
+}
@@ -30,7 +30,6 @@
 package com.rultor.agents.twitter;
 
 import com.jcabi.aspects.Immutable;
-import com.jcabi.aspects.Quietly;
 import java.io.IOException;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
@@ -87,7 +86,6 @@ public final class OAuthTwitter implements Twitter {
     }
 
     @Override
-    @Quietly
     public void post(final String msg) throws IOException {
         final TwitterFactory factory = new TwitterFactory();
         final twitter4j.Twitter twitter = factory.getInstance();
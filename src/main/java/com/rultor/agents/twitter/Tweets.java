@@ -37,6 +37,7 @@ import com.jcabi.github.Repo;
 import com.jcabi.log.Logger;
 import com.jcabi.xml.XML;
 import com.rultor.agents.AbstractAgent;
+import com.rultor.agents.TalkState;
 import com.rultor.agents.github.TalkIssues;
 import java.io.IOException;
 import lombok.EqualsAndHashCode;
@@ -74,6 +75,10 @@ public final class Tweets extends AbstractAgent {
      */
     public Tweets(final Github ghub, final Twitter twt) {
         super(
+            new TalkState.Guard().with(
+                TalkState.Fact.WIRE, TalkState.Fact.REQUEST,
+                TalkState.Fact.SUCCESS
+            ),
             "/talk/wire[github-repo and github-issue]",
             "/talk/request[@id and type='release' and success='true']"
         );
@@ -0,0 +1,277 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.dynamo;
+
+import co.stateful.Counter;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeAction;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.AttributeValueUpdate;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.ReturnValue;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Tv;
+import com.jcabi.dynamo.Region;
+import com.jcabi.log.Logger;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Counter in Dynamo, which reserves blocks of numbers.
+ *
+ * <p>Every block is reserved by one atomic update of the item in
+ * the table and then numbers are given out locally, until the block
+ * is over. Numbers are unique and growing on every node, but not
+ * sequential: when the node restarts, the rest of its block is lost.
+ *
+ * <p>Before the first use, the counter has to be seeded once with the
+ * last number of the legacy counter, which was used before, see
+ * {@link #seed(Counter)}; after that the legacy counter is not asked
+ * any more.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString(of = "name")
+@EqualsAndHashCode(of = { "region", "name" })
+public final class DyCounter {
+
+    /**
+     * Table name.
+     */
+    public static final String TBL = "counters";
+
+    /**
+     * Counter name.
+     */
+    public static final String HASH = "name";
+
+    /**
+     * The largest number reserved so far.
+     */
+    public static final String ATTR_VALUE = "value";
+
+    /**
+     * Blocks reserved by this node, by counters (their regions and names).
+     */
+    private static final ConcurrentMap<DyCounter, DyCounter.Block> BLOCKS =
+        new ConcurrentHashMap<DyCounter, DyCounter.Block>(0);
+
+    /**
+     * Region we're in.
+     */
+    private final transient Region region;
+
+    /**
+     * Counter name.
+     */
+    private final transient String name;
+
+    /**
+     * How many numbers to reserve at once.
+     */
+    private final transient int size;
+
+    /**
+     * Public ctor.
+     * @param reg Region
+     * @param label Counter name
+     */
+    public DyCounter(final Region reg, final String label) {
+        this(reg, label, Tv.HUNDRED);
+    }
+
+    /**
+     * Public ctor.
+     * @param reg Region
+     * @param label Counter name
+     * @param block How many numbers to reserve at once
+     */
+    public DyCounter(final Region reg, final String label, final int block) {
+        this.region = reg;
+        this.name = label;
+        this.size = block;
+    }
+
+    /**
+     * Seed the counter with the last number of the legacy counter,
+     * if it is not seeded yet.
+     *
+     * <p>It is a one-time migration: once the item of the counter is
+     * in the table, nothing is done and the legacy counter is not
+     * asked. It must be done before the counter gives out its first
+     * number.
+     *
+     * @param legacy Legacy counter
+     * @return TRUE if seeded now
+     * @throws IOException If fails
+     */
+    public boolean seed(final Counter legacy) throws IOException {
+        boolean seeded = false;
+        if (!this.region.table(DyCounter.TBL).frame()
+            .where(DyCounter.HASH, this.name).iterator().hasNext()) {
+            final long floor = legacy.incrementAndGet(0L);
+            final AmazonDynamoDB aws = this.region.aws();
+            try {
+                aws.putItem(
+                    new PutItemRequest()
+                        .withTableName(
+                            this.region.table(DyCounter.TBL).name()
+                        )
+                        .addItemEntry(
+                            DyCounter.HASH,
+                            new AttributeValue().withS(this.name)
+                        )
+                        .addItemEntry(
+                            DyCounter.ATTR_VALUE,
+                            new AttributeValue().withN(Long.toString(floor))
+                        )
+                        .addExpectedEntry(
+                            DyCounter.HASH,
+                            new ExpectedAttributeValue().withExists(false)
+                        )
+                );
+                seeded = true;
+                Logger.info(
+                    this, "counter '%s' seeded with %d", this.name, floor
+                );
+            } catch (final ConditionalCheckFailedException ex) {
+                Logger.info(
+                    this, "counter '%s' was seeded already", this.name
+                );
+            } finally {
+                aws.shutdown();
+            }
+        }
+        return seeded;
+    }
+
+    /**
+     * Get the next number.
+     * @return Number, unique in the cluster
+     * @throws IOException If fails
+     */
+    public long next() throws IOException {
+        DyCounter.BLOCKS.putIfAbsent(this, new DyCounter.Block());
+        final DyCounter.Block block = DyCounter.BLOCKS.get(this);
+        synchronized (block) {
+            if (block.over()) {
+                final long last = this.add(this.size);
+                block.reset(last - this.size + 1L, last);
+            }
+            return block.take();
+        }
+    }
+
+    /**
+     * Add to the value of the counter, atomically.
+     * @param delta How much to add
+     * @return New value
+     * @throws IOException If fails
+     */
+    private long add(final long delta) throws IOException {
+        final AmazonDynamoDB aws = this.region.aws();
+        try {
+            return Long.parseLong(
+                aws.updateItem(
+                    new UpdateItemRequest()
+                        .withTableName(
+                            this.region.table(DyCounter.TBL).name()
+                        )
+                        .addKeyEntry(
+                            DyCounter.HASH,
+                            new AttributeValue().withS(this.name)
+                        )
+                        .addAttributeUpdatesEntry(
+                            DyCounter.ATTR_VALUE,
+                            new AttributeValueUpdate()
+                                .withAction(AttributeAction.ADD)
+                                .withValue(
+                                    new AttributeValue().withN(
+                                        Long.toString(delta)
+                                    )
+                                )
+                        )
+                        .withReturnValues(ReturnValue.UPDATED_NEW)
+                ).getAttributes().get(DyCounter.ATTR_VALUE).getN()
+            );
+        } finally {
+            aws.shutdown();
+        }
+    }
+
+    /**
+     * Block of reserved numbers.
+     */
+    private static final class Block {
+        /**
+         * Next number to give out.
+         */
+        private transient long next;
+        /**
+         * The last number of the block.
+         */
+        private transient long last = -1L;
+        /**
+         * Is it over?
+         * @return TRUE if there are no numbers left
+         */
+        public boolean over() {
+            return this.next > this.last;
+        }
+        /**
+         * Start a new block.
+         * @param first The first number
+         * @param end The last number
+         */
+        public void reset(final long first, final long end) {
+            this.next = first;
+            this.last = end;
+        }
+        /**
+         * Take the next number.
+         * @return Number
+         */
+        public long take() {
+            final long number = this.next;
+            ++this.next;
+            return number;
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.dynamo;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.dynamo.Item;
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import com.rultor.spi.Talk;
+import java.io.IOException;
+import java.util.Date;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.xembly.Directive;
+
+/**
+ * Talk in Dynamo, found in a listing (siblings or archived talks).
+ *
+ * <p>Its XML is the short summary, stored next to the full XML of the
+ * talk, which is enough to render lists of talks. The summary has no
+ * daemon, shell or request and misses required attributes, so it is
+ * not valid against the schema of talks and must never be validated
+ * or used to modify the talk; {@link #modify(Iterable)} works with the
+ * full XML. Talks saved before summaries were introduced are read
+ * in full.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = "item")
+final class DySibling implements Talk {
+
+    /**
+     * Item.
+     */
+    private final transient Item item;
+
+    /**
+     * Ctor.
+     * @param itm Item
+     */
+    DySibling(final Item itm) {
+        this.item = itm;
+    }
+
+    @Override
+    public Long number() throws IOException {
+        return new DyTalk(this.item).number();
+    }
+
+    @Override
+    public String name() throws IOException {
+        return new DyTalk(this.item).name();
+    }
+
+    @Override
+    public Date updated() throws IOException {
+        return new DyTalk(this.item).updated();
+    }
+
+    @Override
+    public XML read() throws IOException {
+        final XML xml;
+        if (this.item.has(DyTalks.ATTR_SUMMARY)) {
+            xml = new XMLDocument(this.item.get(DyTalks.ATTR_SUMMARY).getS());
+        } else {
+            xml = new DyTalk(this.item).read();
+        }
+        return xml;
+    }
+
+    @Override
+    public void modify(final Iterable<Directive> dirs) throws IOException {
+        new DyTalk(this.item).modify(dirs);
+    }
+
+    @Override
+    public void active(final boolean yes) throws IOException {
+        new DyTalk(this.item).active(yes);
+    }
+
+}
@@ -34,17 +34,20 @@ import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Tv;
 import com.jcabi.dynamo.AttributeUpdates;
 import com.jcabi.dynamo.Item;
-import com.jcabi.xml.StrictXML;
 import com.jcabi.xml.XML;
 import com.jcabi.xml.XMLDocument;
 import com.jcabi.xml.XSLDocument;
 import com.rultor.spi.Talk;
+import com.rultor.spi.Upgrade;
+import com.rultor.spi.Validated;
+import com.rultor.spi.XPathQuery;
 import java.io.IOException;
 import java.util.Date;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.w3c.dom.Node;
 import org.xembly.Directive;
+import org.xembly.Directives;
 import org.xembly.ImpossibleModificationException;
 import org.xembly.Xembler;
 
@@ -59,6 +62,32 @@ import org.xembly.Xembler;
 @ToString
 @EqualsAndHashCode(of = "item")
 public final class DyTalk implements Talk {
+
+    /**
+     * Name of the talk.
+     */
+    private static final XPathQuery NAME = new XPathQuery("/talk/@name");
+
+    /**
+     * Number of the talk.
+     */
+    private static final XPathQuery NUMBER = new XPathQuery("/talk/@number");
+
+    /**
+     * Is it public.
+     */
+    private static final XPathQuery PUBLIC = new XPathQuery("/talk/@public");
+
+    /**
+     * Wire of the talk.
+     */
+    private static final XPathQuery WIRE = new XPathQuery("/talk/wire");
+
+    /**
+     * Archived logs.
+     */
+    private static final XPathQuery LOGS = new XPathQuery("/talk/archive/log");
+
     /**
      * Item.
      */
@@ -91,12 +120,9 @@ public final class DyTalk implements Talk {
 
     @Override
     public XML read() throws IOException {
-        return new StrictXML(
-            Talk.UPGRADE.transform(
-                new XMLDocument(this.item.get(DyTalks.ATTR_XML).getS())
-            ),
-            Talk.SCHEMA
-        );
+        return new Upgrade(
+            new XMLDocument(this.item.get(DyTalks.ATTR_XML).getS())
+        ).xml();
     }
 
     @Override
@@ -116,7 +142,7 @@ public final class DyTalk implements Talk {
                 );
             }
             final String body = XSLDocument.STRIP.transform(
-                new StrictXML(new XMLDocument(node), Talk.SCHEMA)
+                new Validated(new XMLDocument(node)).xml()
             ).toString();
             if (body.length() > Tv.FIFTY * Tv.THOUSAND) {
                 throw new IllegalArgumentException("XML is too big");
@@ -124,6 +150,7 @@ public final class DyTalk implements Talk {
             this.item.put(
                 new AttributeUpdates()
                     .with(DyTalks.ATTR_XML, body)
+                    .with(DyTalks.ATTR_SUMMARY, DyTalk.summary(node))
                     .with(DyTalks.ATTR_UPDATED, System.currentTimeMillis())
             );
         }
@@ -138,4 +165,32 @@ public final class DyTalk implements Talk {
         );
     }
 
+    /**
+     * Make a short summary of the talk, with only what is needed
+     * for lists of talks.
+     * @param node XML of the talk
+     * @return Summary XML
+     */
+    static String summary(final Node node) {
+        final XML xml = new XMLDocument(node);
+        final Directives dirs = new Directives().add("talk")
+            .attr("name", DyTalk.NAME.xpath(xml).get(0))
+            .attr("number", DyTalk.NUMBER.xpath(xml).get(0));
+        for (final String open : DyTalk.PUBLIC.xpath(xml)) {
+            dirs.attr("public", open);
+        }
+        for (final XML wire : DyTalk.WIRE.nodes(xml)) {
+            dirs.append(Directives.copyOf(wire.node()));
+        }
+        dirs.add("archive");
+        for (final XML log : DyTalk.LOGS.nodes(xml)) {
+            dirs.append(Directives.copyOf(log.node()));
+        }
+        try {
+            return new Xembler(dirs).xml();
+        } catch (final ImpossibleModificationException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
 }
@@ -29,7 +29,6 @@
  */
 package com.rultor.dynamo;
 
-import co.stateful.Counter;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
 import com.amazonaws.services.dynamodbv2.model.Condition;
@@ -49,6 +48,7 @@ import com.jcabi.dynamo.QueryValve;
 import com.jcabi.dynamo.Region;
 import com.rultor.spi.Talk;
 import com.rultor.spi.Talks;
+import com.rultor.spi.XPathQuery;
 import java.io.IOException;
 import java.util.Date;
 import lombok.EqualsAndHashCode;
@@ -123,6 +123,24 @@ public final class DyTalks implements Talks {
      */
     public static final String ATTR_UPDATED = "updated";
 
+    /**
+     * Short summary of the talk, for the list of siblings.
+     * @since 2.0
+     */
+    public static final String ATTR_SUMMARY = "summary";
+
+    /**
+     * Name of the counter of talks, in {@link DyCounter}.
+     * @since 2.0
+     */
+    public static final String COUNTER = "talk";
+
+    /**
+     * Public talk.
+     */
+    private static final XPathQuery PUBLIC =
+        new XPathQuery("/talk[@public='true']");
+
     /**
      * Region we're in.
      */
@@ -131,16 +149,15 @@ public final class DyTalks implements Talks {
     /**
      * Counter of talks.
      */
-    private final transient Counter counter;
+    private final transient DyCounter counter;
 
     /**
      * Public ctor.
      * @param reg Region
-     * @param cnt Counter of talks
      */
-    public DyTalks(final Region reg, final Counter cnt) {
+    public DyTalks(final Region reg) {
         this.region = reg;
-        this.counter = cnt;
+        this.counter = new DyCounter(reg, DyTalks.COUNTER);
     }
 
     @Override
@@ -213,7 +230,7 @@ public final class DyTalks implements Talks {
     @Override
     public void create(final String repo, final String name)
         throws IOException {
-        final long number = this.counter.incrementAndGet(1L);
+        final long number = this.counter.next();
         this.region.table(DyTalks.TBL).put(
             new Attributes()
                 .with(DyTalks.HASH, name)
@@ -280,9 +297,7 @@ public final class DyTalks implements Talks {
                     @Override
                     public boolean apply(final Talk talk) {
                         try {
-                            return !talk.read().nodes(
-                                "/talk[@public='true']"
-                            ).isEmpty();
+                            return DyTalks.PUBLIC.exists(talk.read());
                         } catch (final IOException ex) {
                             throw new IllegalStateException(ex);
                         }
@@ -319,9 +334,45 @@ public final class DyTalks implements Talks {
             new Function<Item, Talk>() {
                 @Override
                 public Talk apply(final Item input) {
-                    return new DyTalk(input);
+                    return new DySibling(input);
                 }
             }
         );
     }
+
+    @Override
+    public Iterable<Talk> archived(final Date since, final Date till) {
+        return Iterables.transform(
+            this.region.table(DyTalks.TBL)
+                .frame()
+                .through(
+                    new QueryValve()
+                        .withIndexName(DyTalks.IDX_ACTIVE)
+                        .withConsistentRead(false)
+                        .withLimit(Tv.HUNDRED)
+                        .withSelect(Select.ALL_PROJECTED_ATTRIBUTES)
+                )
+                .where(DyTalks.ATTR_ACTIVE, Boolean.toString(false))
+                .where(
+                    DyTalks.ATTR_UPDATED,
+                    new Condition()
+                        .withComparisonOperator(ComparisonOperator.BETWEEN)
+                        .withAttributeValueList(
+                            new AttributeValue().withN(
+                                Long.toString(since.getTime())
+                            ),
+                            new AttributeValue().withN(
+                                Long.toString(till.getTime() - 1L)
+                            )
+                        )
+                ),
+            new Function<Item, Talk>() {
+                @Override
+                public Talk apply(final Item input) {
+                    return new DySibling(input);
+                }
+            }
+        );
+    }
+
 }
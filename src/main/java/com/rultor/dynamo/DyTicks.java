@@ -0,0 +1,264 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.dynamo;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
+import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.google.common.base.Predicates;
+import com.google.common.collect.Iterables;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.dynamo.Attributes;
+import com.jcabi.dynamo.Conditions;
+import com.jcabi.dynamo.Frame;
+import com.jcabi.dynamo.Item;
+import com.jcabi.dynamo.QueryValve;
+import com.jcabi.dynamo.Region;
+import com.jcabi.dynamo.ScanValve;
+import com.rultor.spi.Pulse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Ticks of all nodes of the cluster, in Dynamo.
+ *
+ * <p>Every node publishes its own ticks here and reads ticks of
+ * all nodes. Ticks are grouped by the hour they started in, so
+ * that recent ticks are fetched by a few queries, without a scan
+ * of the table.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = "region")
+public final class DyTicks {
+
+    /**
+     * Table name.
+     */
+    public static final String TBL = "ticks";
+
+    /**
+     * Hour of the start of the tick, since epoch.
+     */
+    public static final String HASH = "hour";
+
+    /**
+     * Start of the tick and the name of the node.
+     */
+    public static final String RANGE = "id";
+
+    /**
+     * Node name.
+     */
+    public static final String ATTR_NODE = "node";
+
+    /**
+     * Start of the tick, in msec.
+     */
+    public static final String ATTR_START = "start";
+
+    /**
+     * Duration, in msec.
+     */
+    public static final String ATTR_MSEC = "msec";
+
+    /**
+     * Total talks processed.
+     */
+    public static final String ATTR_TOTAL = "total";
+
+    /**
+     * Durations of stages, like "starter=5 talks=1200 closer=15".
+     */
+    public static final String ATTR_STAGES = "stages";
+
+    /**
+     * Region we're in.
+     */
+    private final transient Region region;
+
+    /**
+     * Public ctor.
+     * @param reg Region
+     */
+    public DyTicks(final Region reg) {
+        this.region = reg;
+    }
+
+    /**
+     * Publish a tick of the node.
+     * @param node Node name
+     * @param tick Tick
+     * @throws IOException If fails
+     */
+    public void add(final String node, final Pulse.Tick tick)
+        throws IOException {
+        final StringBuilder stages = new StringBuilder(0);
+        for (final Map.Entry<String, Long> stage
+            : tick.stages().entrySet()) {
+            if (stages.length() > 0) {
+                stages.append(' ');
+            }
+            stages.append(stage.getKey()).append('=').append(stage.getValue());
+        }
+        this.region.table(DyTicks.TBL).put(
+            new Attributes()
+                .with(DyTicks.HASH, DyTicks.hour(tick.start()))
+                .with(
+                    DyTicks.RANGE,
+                    String.format("%s %s", DyTicks.id(tick.start()), node)
+                )
+                .with(DyTicks.ATTR_NODE, node)
+                .with(DyTicks.ATTR_START, tick.start())
+                .with(DyTicks.ATTR_MSEC, tick.duration())
+                .with(DyTicks.ATTR_TOTAL, tick.total())
+                .with(DyTicks.ATTR_STAGES, stages.toString())
+        );
+    }
+
+    /**
+     * Ticks of all nodes, started after this moment, ordered by start.
+     * @param since Start of the period, in msec, exclusive
+     * @return Ticks by node names
+     * @throws IOException If fails
+     */
+    public Map<String, Collection<Pulse.Tick>> since(final long since)
+        throws IOException {
+        final Map<String, Collection<Pulse.Tick>> ticks =
+            new LinkedHashMap<String, Collection<Pulse.Tick>>(0);
+        final long last = DyTicks.hour(System.currentTimeMillis());
+        for (long hour = DyTicks.hour(since); hour <= last; ++hour) {
+            Frame frame = this.region.table(DyTicks.TBL)
+                .frame()
+                .through(new QueryValve().withConsistentRead(false))
+                .where(DyTicks.HASH, Conditions.equalTo(hour));
+            if (hour == DyTicks.hour(since)) {
+                frame = frame.where(
+                    DyTicks.RANGE,
+                    new Condition()
+                        .withComparisonOperator(ComparisonOperator.GT)
+                        .withAttributeValueList(
+                            new AttributeValue().withS(DyTicks.id(since))
+                        )
+                );
+            }
+            for (final Item item : frame) {
+                final String node = item.get(DyTicks.ATTR_NODE).getS();
+                if (!ticks.containsKey(node)) {
+                    ticks.put(node, new ArrayList<Pulse.Tick>(0));
+                }
+                ticks.get(node).add(DyTicks.tick(item));
+            }
+        }
+        return ticks;
+    }
+
+    /**
+     * Delete ticks of all nodes started in the hours before the hour
+     * of this moment.
+     *
+     * <p>The whole table is scanned, so it is not supposed to be called
+     * often; hours skipped by previous calls are deleted too.
+     *
+     * @param moment Moment, in msec
+     */
+    public void prune(final long moment) {
+        Iterables.removeIf(
+            this.region.table(DyTicks.TBL)
+                .frame()
+                .through(new ScanValve())
+                .where(
+                    DyTicks.HASH,
+                    new Condition()
+                        .withComparisonOperator(ComparisonOperator.LT)
+                        .withAttributeValueList(
+                            new AttributeValue().withN(
+                                Long.toString(DyTicks.hour(moment))
+                            )
+                        )
+                ),
+            Predicates.alwaysTrue()
+        );
+    }
+
+    /**
+     * Make a tick from the item.
+     * @param item Item
+     * @return Tick
+     * @throws IOException If fails
+     */
+    private static Pulse.Tick tick(final Item item) throws IOException {
+        final Map<String, Long> stages = new LinkedHashMap<String, Long>(0);
+        if (item.has(DyTicks.ATTR_STAGES)) {
+            for (final String stage
+                : item.get(DyTicks.ATTR_STAGES).getS().split(" ")) {
+                final String[] parts = stage.split("=", 2);
+                if (parts.length == 2) {
+                    stages.put(parts[0], Long.parseLong(parts[1]));
+                }
+            }
+        }
+        return new Pulse.Tick(
+            Long.parseLong(item.get(DyTicks.ATTR_START).getN()),
+            Long.parseLong(item.get(DyTicks.ATTR_MSEC).getN()),
+            Integer.parseInt(item.get(DyTicks.ATTR_TOTAL).getN()),
+            stages
+        );
+    }
+
+    /**
+     * Hour of the moment, since epoch.
+     * @param moment Moment, in msec
+     * @return Hour
+     */
+    private static long hour(final long moment) {
+        return TimeUnit.MILLISECONDS.toHours(moment);
+    }
+
+    /**
+     * Sortable ID of the moment.
+     * @param moment Moment, in msec
+     * @return ID
+     */
+    private static String id(final long moment) {
+        return String.format("%013d", moment);
+    }
+
+}
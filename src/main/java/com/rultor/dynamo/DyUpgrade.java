@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.dynamo;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeAction;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.AttributeValueUpdate;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Tv;
+import com.jcabi.dynamo.Region;
+import com.jcabi.log.Logger;
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import com.jcabi.xml.XSLDocument;
+import com.rultor.spi.Talk;
+import com.rultor.spi.Upgrade;
+import com.rultor.spi.Validated;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Upgrades all talks in Dynamo to the current schema.
+ *
+ * <p>Talks that are never modified again would otherwise be
+ * upgraded by {@link Talk#UPGRADE} on every read. Talks saved before
+ * summaries were introduced get their summaries here too.
+ *
+ * <p>The table is scanned in small pages, with a pause between them,
+ * so that it doesn't take all the read capacity of the table; it
+ * is supposed to run in its own thread, not in the one of agents.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = "region")
+public final class DyUpgrade implements Callable<Integer> {
+
+    /**
+     * Region we're in.
+     */
+    private final transient Region region;
+
+    /**
+     * Ctor.
+     * @param reg Region
+     */
+    public DyUpgrade(final Region reg) {
+        this.region = reg;
+    }
+
+    @Override
+    public Integer call() throws InterruptedException {
+        final String table = this.region.table(DyTalks.TBL).name();
+        final AmazonDynamoDB aws = this.region.aws();
+        int total = 0;
+        try {
+            Map<String, AttributeValue> start = null;
+            do {
+                final ScanResult result = aws.scan(
+                    new ScanRequest()
+                        .withTableName(table)
+                        .withLimit(Tv.TWENTY)
+                        .withAttributesToGet(
+                            DyTalks.HASH, DyTalks.ATTR_XML,
+                            DyTalks.ATTR_SUMMARY
+                        )
+                        .withExclusiveStartKey(start)
+                );
+                for (final Map<String, AttributeValue> item
+                    : result.getItems()) {
+                    if (DyUpgrade.upgrade(aws, table, item)) {
+                        ++total;
+                    }
+                }
+                start = result.getLastEvaluatedKey();
+                TimeUnit.SECONDS.sleep(1L);
+            } while (start != null);
+        } finally {
+            aws.shutdown();
+        }
+        Logger.info(
+            this, "%d talk(s) upgraded to schema #%d", total, Talk.VERSION
+        );
+        return total;
+    }
+
+    /**
+     * Upgrade one talk, if necessary and if it was not modified since
+     * it was scanned (agents modify talks at the same time); a talk
+     * skipped here is upgraded by its next modification anyway.
+     * @param aws DynamoDB client
+     * @param table Name of the table
+     * @param item Item, as scanned
+     * @return TRUE if upgraded now
+     */
+    private static boolean upgrade(final AmazonDynamoDB aws,
+        final String table, final Map<String, AttributeValue> item) {
+        final Upgrade upgrade = new Upgrade(
+            new XMLDocument(item.get(DyTalks.ATTR_XML).getS())
+        );
+        boolean upgraded = false;
+        if (upgrade.required() || !item.containsKey(DyTalks.ATTR_SUMMARY)) {
+            final XML xml = new Validated(upgrade.xml()).xml();
+            try {
+                aws.updateItem(
+                    new UpdateItemRequest()
+                        .withTableName(table)
+                        .addKeyEntry(DyTalks.HASH, item.get(DyTalks.HASH))
+                        .addAttributeUpdatesEntry(
+                            DyTalks.ATTR_XML,
+                            DyUpgrade.put(
+                                XSLDocument.STRIP.transform(xml).toString()
+                            )
+                        )
+                        .addAttributeUpdatesEntry(
+                            DyTalks.ATTR_SUMMARY,
+                            DyUpgrade.put(DyTalk.summary(xml.node()))
+                        )
+                        .addExpectedEntry(
+                            DyTalks.ATTR_XML,
+                            new ExpectedAttributeValue(
+                                item.get(DyTalks.ATTR_XML)
+                            )
+                        )
+                );
+                upgraded = true;
+            } catch (final ConditionalCheckFailedException ex) {
+                Logger.info(
+                    DyUpgrade.class, "talk %s was modified, skipped",
+                    item.get(DyTalks.HASH).getS()
+                );
+            }
+        }
+        return upgraded;
+    }
+
+    /**
+     * Update that puts a string.
+     * @param value The value
+     * @return Update
+     */
+    private static AttributeValueUpdate put(final String value) {
+        return new AttributeValueUpdate()
+            .withAction(AttributeAction.PUT)
+            .withValue(new AttributeValue().withS(value));
+    }
+
+}
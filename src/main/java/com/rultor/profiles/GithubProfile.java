@@ -31,10 +31,12 @@ package com.rultor.profiles;
 
 import com.google.common.collect.ImmutableMap;
 import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Tv;
 import com.jcabi.github.Content;
 import com.jcabi.github.Coordinates;
 import com.jcabi.github.Github;
 import com.jcabi.github.Repo;
+import com.jcabi.log.VerboseThreads;
 import com.jcabi.xml.XML;
 import com.rultor.agents.github.TalkIssues;
 import com.rultor.spi.Profile;
@@ -43,7 +45,14 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import lombok.EqualsAndHashCode;
@@ -85,6 +94,14 @@ final class GithubProfile implements Profile {
         "(\\w[\\w\\-]+/[\\w\\.\\-]+)#(.+)"
     );
 
+    /**
+     * Threads fetching assets, shared by all profiles.
+     */
+    private static final ExecutorService FETCHERS =
+        Executors.newFixedThreadPool(
+            Tv.FIVE, new VerboseThreads(GithubProfile.class)
+        );
+
     /**
      * Repo.
      */
@@ -120,34 +137,73 @@ final class GithubProfile implements Profile {
 
     @Override
     public Map<String, InputStream> assets() throws IOException {
+        final Map<String, Future<byte[]>> futures =
+            new LinkedHashMap<String, Future<byte[]>>(0);
         final ImmutableMap.Builder<String, InputStream> assets =
             new ImmutableMap.Builder<String, InputStream>();
+        boolean done = false;
+        try {
+            this.submit(futures);
+            for (final Map.Entry<String, Future<byte[]>> ent
+                : futures.entrySet()) {
+                assets.put(
+                    ent.getKey(),
+                    new ByteArrayInputStream(GithubProfile.get(ent.getValue()))
+                );
+            }
+            done = true;
+        } finally {
+            if (!done) {
+                for (final Future<byte[]> future : futures.values()) {
+                    future.cancel(true);
+                }
+            }
+        }
+        return assets.build();
+    }
+
+    /**
+     * Check friends and start fetching all assets.
+     * @param futures Map of futures to fill, by names of assets
+     * @throws IOException If fails
+     */
+    private void submit(final Map<String, Future<byte[]>> futures)
+        throws IOException {
+        final Collection<String> friends = new HashSet<String>(0);
         final XML xml = this.read();
         for (final XML asset : xml.nodes("/p/entry[@key='assets']/entry")) {
-            assets.put(
+            final String path = asset.xpath("text()").get(0);
+            final Matcher matcher = GithubProfile.PATH.matcher(path);
+            if (!matcher.matches()) {
+                throw new Profile.ConfigException(
+                    String.format("invalid path of asset: %s", path)
+                );
+            }
+            final Repo rpo = this.repo.github().repos().get(
+                new Coordinates.Simple(matcher.group(1))
+            );
+            if (friends.add(matcher.group(1))) {
+                this.friend(rpo);
+            }
+            futures.put(
                 asset.xpath("@key").get(0),
-                this.asset(asset.xpath("text()").get(0))
+                GithubProfile.FETCHERS.submit(
+                    GithubProfile.fetch(rpo, matcher.group(2))
+                )
             );
         }
-        return assets.build();
     }
 
     /**
-     * Convert address to input stream.
-     * @param path Path of the asset, e.g. "yegor/rultor#pom.xml"
-     * @return Stream with content
+     * Make sure the repo allows us to use its assets.
+     *
+     * <p>Called once for every repo, no matter how many assets
+     * we take from it.
+     *
+     * @param rpo Repo with assets
      * @throws IOException If fails
      */
-    private InputStream asset(final String path) throws IOException {
-        final Matcher matcher = GithubProfile.PATH.matcher(path);
-        if (!matcher.matches()) {
-            throw new Profile.ConfigException(
-                String.format("invalid path of asset: %s", path)
-            );
-        }
-        final Repo rpo = this.repo.github().repos().get(
-            new Coordinates.Simple(matcher.group(1))
-        );
+    private void friend(final Repo rpo) throws IOException {
         if (!rpo.contents().exists(GithubProfile.FILE, GithubProfile.BRANCH)) {
             throw new Profile.ConfigException(
                 String.format(
@@ -175,18 +231,58 @@ final class GithubProfile implements Profile {
                 )
             );
         }
-        return this.buildAssetStream(rpo, matcher.group(2));
     }
 
     /**
-     * Build the InputStream for the given filename in the given Repository,
+     * Fetch the asset, in a separate thread.
+     * @param rpo Repository where the file is
+     * @param filename Name of the file
+     * @return Task returning the content of the file
+     */
+    private static Callable<byte[]> fetch(final Repo rpo,
+        final String filename) {
+        return new Callable<byte[]>() {
+            @Override
+            public byte[] call() throws IOException {
+                return GithubProfile.content(rpo, filename);
+            }
+        };
+    }
+
+    /**
+     * Get the content of the asset fetched.
+     * @param future Future content
+     * @return Content
+     * @throws IOException If fails
+     */
+    private static byte[] get(final Future<byte[]> future)
+        throws IOException {
+        try {
+            return future.get();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } catch (final ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Get the content of the given filename in the given Repository,
      * dealing with errors.
      * @param rpo Repository where the file is.
      * @param filename Name of the file.
-     * @return An InputStream with the Base64 contents of the file.
+     * @return Decoded content of the file.
      * @throws IOException If something goes wrong.
      */
-    private InputStream buildAssetStream(final Repo rpo, final String filename)
+    private static byte[] content(final Repo rpo, final String filename)
         throws IOException {
         if (!rpo.contents().exists(filename, GithubProfile.BRANCH)) {
             throw new Profile.ConfigException(
@@ -197,12 +293,10 @@ final class GithubProfile implements Profile {
                 )
             );
         }
-        return new ByteArrayInputStream(
-            Base64.decodeBase64(
-                new Content.Smart(
-                    rpo.contents().get(filename)
-                ).content()
-            )
+        return Base64.decodeBase64(
+            new Content.Smart(
+                rpo.contents().get(filename)
+            ).content()
         );
     }
 
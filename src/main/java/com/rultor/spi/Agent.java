@@ -73,7 +73,13 @@ public interface Agent {
         @Override
         public void execute(final Talk talk) throws IOException {
             for (final Agent agent : this.children) {
+                final long start = System.currentTimeMillis();
                 agent.execute(talk);
+                if (!(agent instanceof Agent.Iterative)) {
+                    Pulse.Durations.add(
+                        agent, System.currentTimeMillis() - start
+                    );
+                }
             }
         }
     }
@@ -29,7 +29,11 @@
  */
 package com.rultor.spi;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Tv;
 import com.jcabi.immutable.ArrayMap;
 import com.jcabi.xml.StrictXML;
 import com.jcabi.xml.XML;
@@ -109,6 +113,22 @@ public interface Profile {
      */
     @Immutable
     final class Defaults {
+        /**
+         * Queries of texts, by XPath of their elements.
+         */
+        private static final LoadingCache<String, XPathQuery> TEXTS =
+            CacheBuilder.newBuilder()
+                .maximumSize((long) Tv.HUNDRED)
+                .build(
+                    new CacheLoader<String, XPathQuery>() {
+                        @Override
+                        public XPathQuery load(final String xpath) {
+                            return new XPathQuery(
+                                String.format("%s/text()", xpath)
+                            );
+                        }
+                    }
+                );
         /**
          * Original profile.
          */
@@ -131,10 +151,11 @@ public interface Profile {
             throws IOException {
             final XML xml = this.origin.read();
             final String text;
-            if (xml.nodes(xpath).isEmpty()) {
-                text = def;
+            if (new XPathQuery(xpath).exists(xml)) {
+                text = Profile.Defaults.TEXTS.getUnchecked(xpath)
+                    .xpath(xml).get(0);
             } else {
-                text = xml.xpath(String.format("%s/text()", xpath)).get(0);
+                text = def;
             }
             return text;
         }
@@ -29,6 +29,10 @@
  */
 package com.rultor.spi;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Pulse.
  *
@@ -60,6 +64,10 @@ public interface Pulse {
          * Talks processed or -1.
          */
         private final transient int talks;
+        /**
+         * Durations of stages, in msec.
+         */
+        private final transient Map<String, Long> parts;
         /**
          * Ctor.
          * @param date When
@@ -68,9 +76,25 @@ public interface Pulse {
          */
         public Tick(final long date, final long duration,
             final int total) {
+            this(date, duration, total, Collections.<String, Long>emptyMap());
+        }
+        /**
+         * Ctor.
+         * @param date When
+         * @param duration Duration in msec
+         * @param total Total processed or negative if failed
+         * @param stages Durations of stages in msec, in order of execution
+         * @since 2.0
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        public Tick(final long date, final long duration,
+            final int total, final Map<String, Long> stages) {
             this.when = date;
             this.msec = duration;
             this.talks = total;
+            this.parts = Collections.unmodifiableMap(
+                new LinkedHashMap<String, Long>(stages)
+            );
         }
         /**
          * Time of start.
@@ -93,6 +117,72 @@ public interface Pulse {
         public int total() {
             return this.talks;
         }
+        /**
+         * Durations of stages in msec, in order of execution.
+         * @return Stages and their durations
+         * @since 2.0
+         */
+        public Map<String, Long> stages() {
+            return this.parts;
+        }
+    }
+
+    /**
+     * Durations of agents, collected in the thread of a tick.
+     *
+     * <p>{@link Agent.Iterative} and {@link SuperAgent.Iterative} add
+     * the time spent by each of their children, summed up by the
+     * class of the agent over all talks of the tick. Nothing is
+     * collected in a thread that didn't call {@link #start()}.
+     *
+     * @since 2.0
+     */
+    final class Durations {
+        /**
+         * Durations of the current tick, in msec, by agent.
+         */
+        private static final ThreadLocal<Map<String, Long>> CURRENT =
+            new ThreadLocal<Map<String, Long>>();
+        /**
+         * Utility class.
+         */
+        private Durations() {
+            // intentionally empty
+        }
+        /**
+         * Start collecting in this thread.
+         */
+        public static void start() {
+            Pulse.Durations.CURRENT.set(new LinkedHashMap<String, Long>(0));
+        }
+        /**
+         * Stop collecting in this thread.
+         * @return Durations collected, in msec, by agent
+         */
+        public static Map<String, Long> stop() {
+            Map<String, Long> map = Pulse.Durations.CURRENT.get();
+            Pulse.Durations.CURRENT.remove();
+            if (map == null) {
+                map = Collections.emptyMap();
+            }
+            return map;
+        }
+        /**
+         * Add time spent by the agent.
+         * @param agent The agent
+         * @param msec Duration, in msec
+         */
+        public static void add(final Object agent, final long msec) {
+            final Map<String, Long> map = Pulse.Durations.CURRENT.get();
+            if (map != null) {
+                final String name = agent.getClass().getSimpleName();
+                Long total = map.get(name);
+                if (total == null) {
+                    total = 0L;
+                }
+                map.put(name, total + msec);
+            }
+        }
     }
 
 }
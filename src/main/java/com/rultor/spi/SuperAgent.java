@@ -73,7 +73,13 @@ public interface SuperAgent {
         @Override
         public void execute(final Talks talks) throws IOException {
             for (final SuperAgent agent : this.children) {
+                final long start = System.currentTimeMillis();
                 agent.execute(talks);
+                if (!(agent instanceof SuperAgent.Iterative)) {
+                    Pulse.Durations.add(
+                        agent, System.currentTimeMillis() - start
+                    );
+                }
             }
         }
     }
@@ -30,7 +30,6 @@
 package com.rultor.spi;
 
 import com.jcabi.aspects.Immutable;
-import com.jcabi.xml.StrictXML;
 import com.jcabi.xml.XML;
 import com.jcabi.xml.XMLDocument;
 import com.jcabi.xml.XSD;
@@ -42,6 +41,9 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.CharEncoding;
 import org.w3c.dom.Node;
@@ -72,6 +74,12 @@ public interface Talk {
         Talk.class.getResourceAsStream("talk.xsd")
     );
 
+    /**
+     * Version of the schema, set by the last upgrade XSL.
+     * @since 2.0
+     */
+    int VERSION = 3;
+
     /**
      * Upgrade XSL.
      */
@@ -86,6 +94,11 @@ public interface Talk {
                 Talk.class.getResourceAsStream(
                     "upgrade/002-public-attribute.xsl"
                 )
+            ),
+            XSLDocument.make(
+                Talk.class.getResourceAsStream(
+                    "upgrade/003-schema-version.xsl"
+                )
             )
         )
     );
@@ -162,7 +175,7 @@ public interface Talk {
             this();
             FileUtils.write(
                 new File(this.path),
-                new StrictXML(xml, Talk.SCHEMA).toString(),
+                new Validated(xml).xml().toString(),
                 CharEncoding.UTF_8
             );
         }
@@ -187,13 +200,13 @@ public interface Talk {
         }
         @Override
         public XML read() throws IOException {
-            return Talk.UPGRADE.transform(
+            return new Upgrade(
                 new XMLDocument(
                     FileUtils.readFileToString(
                         new File(this.path), CharEncoding.UTF_8
                     )
                 )
-            );
+            ).xml();
         }
         @Override
         public void modify(final Iterable<Directive> dirs) throws IOException {
@@ -206,9 +219,7 @@ public interface Talk {
                 }
                 FileUtils.write(
                     new File(this.path),
-                    new StrictXML(
-                        new XMLDocument(node), Talk.SCHEMA
-                    ).toString(),
+                    new Validated(new XMLDocument(node)).xml().toString(),
                     CharEncoding.UTF_8
                 );
             }
@@ -219,4 +230,69 @@ public interface Talk {
         }
     }
 
+    /**
+     * Talk that reads its content only once, until it is modified.
+     *
+     * <p>It is supposed to live during one tick only, in order to avoid
+     * fetching and parsing the same talk by every agent. The class is
+     * NOT immutable: it keeps the content it read in its own field and
+     * forgets it on every {@link #modify(Iterable)}. Don't keep its
+     * objects longer than one tick, since modifications made by other
+     * nodes or by other objects won't be seen.
+     *
+     * @since 2.0
+     */
+    @ToString(of = "origin")
+    final class Cached implements Talk {
+        /**
+         * Original talk.
+         */
+        private final transient Talk origin;
+        /**
+         * Content read, or NULL if not read yet.
+         */
+        private final transient AtomicReference<XML> content;
+        /**
+         * Ctor.
+         * @param talk Original talk
+         */
+        public Cached(final Talk talk) {
+            this.origin = talk;
+            this.content = new AtomicReference<XML>();
+        }
+        @Override
+        public Long number() throws IOException {
+            return this.origin.number();
+        }
+        @Override
+        public String name() throws IOException {
+            return this.origin.name();
+        }
+        @Override
+        public Date updated() throws IOException {
+            return this.origin.updated();
+        }
+        @Override
+        public XML read() throws IOException {
+            XML xml = this.content.get();
+            if (xml == null) {
+                xml = this.origin.read();
+                this.content.set(xml);
+            }
+            return xml;
+        }
+        @Override
+        public void modify(final Iterable<Directive> dirs) throws IOException {
+            try {
+                this.origin.modify(dirs);
+            } finally {
+                this.content.set(null);
+            }
+        }
+        @Override
+        public void active(final boolean yes) throws IOException {
+            this.origin.active(yes);
+        }
+    }
+
 }
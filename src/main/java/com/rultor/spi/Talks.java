@@ -34,6 +34,7 @@ import com.google.common.base.Predicate;
 import com.google.common.collect.Iterables;
 import com.google.common.io.Files;
 import com.jcabi.aspects.Immutable;
+import com.jcabi.immutable.Array;
 import com.jcabi.log.Logger;
 import com.jcabi.xml.StrictXML;
 import com.jcabi.xml.XMLDocument;
@@ -41,6 +42,8 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Date;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.CharEncoding;
 
@@ -113,12 +116,34 @@ public interface Talks {
 
     /**
      * Get siblings, since this date (all talks will be older that this date).
+     *
+     * <p>Talks may be returned in their short form: their
+     * {@link Talk#read()} may give only a summary (name, number, public
+     * flag, wire and archive), which is enough to list them, but is not
+     * valid against the schema of talks. Read the talk again by its name,
+     * through {@link #get(String)}, to get its full XML.
+     *
      * @param repo Repo name
      * @param since Date
      * @return Talks
      */
     Iterable<Talk> siblings(String repo, Date since);
 
+    /**
+     * Get talks that are not active any more, updated in this period of
+     * time, in their short form.
+     *
+     * <p>Like in {@link #siblings(String, Date)}, {@link Talk#read()} of
+     * these talks may give only a summary, not valid against the schema
+     * of talks.
+     *
+     * @param since Start of the period, inclusive
+     * @param till End of the period, exclusive
+     * @return Talks
+     * @since 2.0
+     */
+    Iterable<Talk> archived(Date since, Date till);
+
     /**
      * In directory.
      */
@@ -223,5 +248,94 @@ public interface Talks {
         public Iterable<Talk> siblings(final String repo, final Date since) {
             return this.active();
         }
+        @Override
+        public Iterable<Talk> archived(final Date since, final Date till) {
+            return Iterables.filter(
+                this.active(),
+                new Predicate<Talk>() {
+                    @Override
+                    public boolean apply(final Talk talk) {
+                        try {
+                            final Date date = talk.updated();
+                            return !date.before(since) && date.before(till);
+                        } catch (final IOException ex) {
+                            throw new IllegalStateException(ex);
+                        }
+                    }
+                }
+            );
+        }
+    }
+
+    /**
+     * Talks with active ones already loaded.
+     *
+     * <p>Active talks are the ones loaded before, during the same tick,
+     * together with their content, instead of being fetched again.
+     *
+     * @since 2.0
+     */
+    @Immutable
+    @ToString(of = "origin")
+    @EqualsAndHashCode(of = { "origin", "loaded" })
+    final class Loaded implements Talks {
+        /**
+         * Original talks.
+         */
+        private final transient Talks origin;
+        /**
+         * Active talks, already loaded.
+         */
+        private final transient Array<Talk> loaded;
+        /**
+         * Ctor.
+         * @param talks Original talks
+         * @param list Active talks, already loaded
+         */
+        public Loaded(final Talks talks, final Iterable<Talk> list) {
+            this.origin = talks;
+            this.loaded = new Array<Talk>(list);
+        }
+        @Override
+        public boolean exists(final long number) {
+            return this.origin.exists(number);
+        }
+        @Override
+        public Talk get(final long number) {
+            return this.origin.get(number);
+        }
+        @Override
+        public boolean exists(final String name) {
+            return this.origin.exists(name);
+        }
+        @Override
+        public Talk get(final String name) {
+            return this.origin.get(name);
+        }
+        @Override
+        public void delete(final String name) {
+            this.origin.delete(name);
+        }
+        @Override
+        public void create(final String repo, final String name)
+            throws IOException {
+            this.origin.create(repo, name);
+        }
+        @Override
+        public Iterable<Talk> active() {
+            return this.loaded;
+        }
+        @Override
+        public Iterable<Talk> recent() {
+            return this.origin.recent();
+        }
+        @Override
+        public Iterable<Talk> siblings(final String repo, final Date since) {
+            return this.origin.siblings(repo, since);
+        }
+        @Override
+        public Iterable<Talk> archived(final Date since, final Date till) {
+            return this.origin.archived(since, till);
+        }
     }
 }
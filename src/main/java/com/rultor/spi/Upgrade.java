@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.spi;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.xml.XML;
+import java.util.List;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Talk XML, upgraded to the current schema only when it is behind.
+ *
+ * <p>Every talk upgraded by {@link Talk#UPGRADE} gets a {@code schema}
+ * attribute with {@link Talk#VERSION}, so the XSL chain is applied once,
+ * and the next write stores the document as current.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = "origin")
+public final class Upgrade {
+
+    /**
+     * Version of the schema.
+     */
+    private static final XPathQuery SCHEMA = new XPathQuery("/talk/@schema");
+
+    /**
+     * Original XML.
+     */
+    private final transient XML origin;
+
+    /**
+     * Ctor.
+     * @param xml Talk XML, as it is stored
+     */
+    public Upgrade(final XML xml) {
+        this.origin = xml;
+    }
+
+    /**
+     * Is it behind the current schema?
+     * @return TRUE if upgrade is required
+     */
+    public boolean required() {
+        final List<String> version = Upgrade.SCHEMA.xpath(this.origin);
+        return version.isEmpty()
+            || Integer.parseInt(version.get(0)) < Talk.VERSION;
+    }
+
+    /**
+     * Get XML of the current schema.
+     * @return XML, upgraded if necessary
+     */
+    public XML xml() {
+        final XML xml;
+        if (this.required()) {
+            xml = Talk.UPGRADE.transform(this.origin);
+        } else {
+            xml = this.origin;
+        }
+        return xml;
+    }
+
+}
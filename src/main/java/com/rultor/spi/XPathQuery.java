@@ -0,0 +1,326 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.spi;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Tv;
+import com.jcabi.immutable.ArrayMap;
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import javax.xml.xpath.XPathVariableResolver;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * XPath query, compiled once and reused.
+ *
+ * <p>{@link XML#xpath(String)} compiles the expression on every call.
+ * Here compiled expressions are kept in a bounded cache, shared by
+ * all instances, one compiled copy per thread, since
+ * {@link XPathExpression} is not thread-safe. Parameters must be
+ * passed as XPath variables, not formatted into the expression,
+ * otherwise every value makes a new entry in the cache:
+ *
+ * <pre> new XPathQuery("/talk/archive/log[@id=$id]/text()")
+ *   .with("id", hash)
+ *   .xpath(xml);</pre>
+ *
+ * <p>{@link XML#node()} makes a deep copy of the document on every
+ * call, so the copy is made once per {@link XML} object and kept
+ * while the object is alive (talks and profiles are read once per
+ * tick and queried many times). Evaluations on the same copy are
+ * serialized, since DOM is not thread-safe either, and nodes found
+ * are copied again before they are returned.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = { "expr", "vars" })
+public final class XPathQuery {
+
+    /**
+     * Compiled expressions, per thread.
+     */
+    private static final
+        LoadingCache<String, ThreadLocal<XPathQuery.Compiled>> CACHE =
+            CacheBuilder.newBuilder()
+                .maximumSize((long) Tv.THOUSAND)
+                .build(
+                    // @checkstyle LineLength (1 line)
+                    new CacheLoader<String, ThreadLocal<XPathQuery.Compiled>>() {
+                        @Override
+                        public ThreadLocal<XPathQuery.Compiled> load(
+                            final String expr) {
+                            return new ThreadLocal<XPathQuery.Compiled>() {
+                                @Override
+                                protected XPathQuery.Compiled initialValue() {
+                                    return new XPathQuery.Compiled(expr);
+                                }
+                            };
+                        }
+                    }
+                );
+
+    /**
+     * DOM copies of documents, by identity of their {@link XML} objects.
+     */
+    private static final Cache<XML, Node> DOMS =
+        CacheBuilder.newBuilder().weakKeys().build();
+
+    /**
+     * XPath expression.
+     */
+    private final transient String expr;
+
+    /**
+     * Variables.
+     */
+    private final transient ArrayMap<String, String> vars;
+
+    /**
+     * Ctor.
+     * @param xpath XPath expression
+     */
+    public XPathQuery(final String xpath) {
+        this(xpath, new ArrayMap<String, String>());
+    }
+
+    /**
+     * Ctor.
+     * @param xpath XPath expression
+     * @param map Variables
+     */
+    private XPathQuery(final String xpath, final ArrayMap<String, String> map) {
+        this.expr = xpath;
+        this.vars = map;
+    }
+
+    /**
+     * With this variable.
+     * @param name Name of the variable, without dollar sign
+     * @param value Its value
+     * @return New query
+     */
+    public XPathQuery with(final String name, final Object value) {
+        return new XPathQuery(
+            this.expr, this.vars.with(name, value.toString())
+        );
+    }
+
+    /**
+     * Find texts, like {@link XML#xpath(String)}.
+     * @param xml Document
+     * @return Texts found
+     */
+    public List<String> xpath(final XML xml) {
+        final Node dom = XPathQuery.dom(xml);
+        synchronized (dom) {
+            final NodeList list = this.evaluate(dom);
+            final List<String> texts =
+                new ArrayList<String>(list.getLength());
+            for (int idx = 0; idx < list.getLength(); ++idx) {
+                texts.add(list.item(idx).getTextContent());
+            }
+            return texts;
+        }
+    }
+
+    /**
+     * Find nodes, like {@link XML#nodes(String)}.
+     * @param xml Document
+     * @return Nodes found
+     */
+    public List<XML> nodes(final XML xml) {
+        final Node dom = XPathQuery.dom(xml);
+        synchronized (dom) {
+            final NodeList list = this.evaluate(dom);
+            final List<XML> nodes = new ArrayList<XML>(list.getLength());
+            for (int idx = 0; idx < list.getLength(); ++idx) {
+                nodes.add(new XMLDocument(XPathQuery.copy(list.item(idx))));
+            }
+            return nodes;
+        }
+    }
+
+    /**
+     * Does it find anything?
+     * @param xml Document
+     * @return TRUE if at least one node found
+     */
+    public boolean exists(final XML xml) {
+        final Node dom = XPathQuery.dom(xml);
+        synchronized (dom) {
+            return this.evaluate(dom).getLength() > 0;
+        }
+    }
+
+    /**
+     * Evaluate it.
+     * @param dom DOM node
+     * @return Nodes
+     */
+    private NodeList evaluate(final Node dom) {
+        return XPathQuery.CACHE.getUnchecked(this.expr).get().evaluate(
+            dom, this.vars
+        );
+    }
+
+    /**
+     * Deep copy of the node, detached from the shared DOM.
+     *
+     * <p>Nodes found are returned to callers that read them without
+     * any lock, so they must not belong to the DOM cached here.
+     *
+     * @param node The node
+     * @return Its copy
+     */
+    private static Node copy(final Node node) {
+        final Node copy;
+        if (node.getNodeType() == Node.ELEMENT_NODE) {
+            final Document doc;
+            try {
+                doc = DocumentBuilderFactory.newInstance()
+                    .newDocumentBuilder().newDocument();
+            } catch (final ParserConfigurationException ex) {
+                throw new IllegalStateException(ex);
+            }
+            doc.appendChild(doc.importNode(node, true));
+            copy = doc.getDocumentElement();
+        } else {
+            copy = node.cloneNode(true);
+        }
+        return copy;
+    }
+
+    /**
+     * DOM of the document, copied once.
+     * @param xml Document
+     * @return DOM node
+     */
+    private static Node dom(final XML xml) {
+        try {
+            return XPathQuery.DOMS.get(
+                xml,
+                new Callable<Node>() {
+                    @Override
+                    public Node call() {
+                        return xml.node();
+                    }
+                }
+            );
+        } catch (final ExecutionException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Compiled expression, used by one thread only.
+     */
+    private static final class Compiled implements XPathVariableResolver {
+        /**
+         * Expression.
+         */
+        private final transient XPathExpression compiled;
+        /**
+         * Variables of the current evaluation.
+         */
+        private transient Map<String, String> current;
+        /**
+         * Ctor.
+         * @param expr XPath expression
+         */
+        Compiled(final String expr) {
+            final XPath xpath = XPathFactory.newInstance().newXPath();
+            xpath.setXPathVariableResolver(this);
+            try {
+                this.compiled = xpath.compile(expr);
+            } catch (final XPathExpressionException ex) {
+                throw new IllegalArgumentException(
+                    String.format("invalid XPath \"%s\"", expr), ex
+                );
+            }
+            this.current = Collections.<String, String>emptyMap();
+        }
+        @Override
+        public Object resolveVariable(final QName name) {
+            final String value = this.current.get(name.getLocalPart());
+            if (value == null) {
+                throw new IllegalArgumentException(
+                    String.format("XPath variable $%s is not set", name)
+                );
+            }
+            return value;
+        }
+        /**
+         * Evaluate.
+         * @param node DOM node
+         * @param vars Variables
+         * @return Nodes found
+         */
+        public NodeList evaluate(final Node node,
+            final Map<String, String> vars) {
+            this.current = vars;
+            try {
+                return NodeList.class.cast(
+                    this.compiled.evaluate(node, XPathConstants.NODESET)
+                );
+            } catch (final XPathExpressionException ex) {
+                throw new IllegalArgumentException(ex);
+            } finally {
+                this.current = Collections.<String, String>emptyMap();
+            }
+        }
+    }
+
+}
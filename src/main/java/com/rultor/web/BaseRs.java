@@ -30,10 +30,12 @@
 package com.rultor.web;
 
 import com.google.common.base.Predicate;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Iterables;
+import com.jcabi.aspects.Tv;
 import com.jcabi.manifests.Manifests;
 import com.jcabi.urn.URN;
-import com.jcabi.xml.XML;
 import com.rexsl.page.BasePage;
 import com.rexsl.page.BaseResource;
 import com.rexsl.page.Inset;
@@ -52,6 +54,7 @@ import com.rultor.spi.Talks;
 import java.io.IOException;
 import java.net.URI;
 import java.util.Collection;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import javax.validation.constraints.NotNull;
 import javax.ws.rs.core.HttpHeaders;
@@ -98,6 +101,15 @@ public class BaseRs extends BaseResource {
         }
     };
 
+    /**
+     * Readers of repositories, by their names.
+     */
+    private static final Cache<String, Collection<String>> READERS =
+        CacheBuilder.newBuilder()
+            .maximumSize(Tv.THOUSAND)
+            .expireAfterWrite(Tv.FIVE, TimeUnit.MINUTES)
+            .build();
+
     /**
      * Flash.
      * @return The inset with flash
@@ -201,16 +213,8 @@ public class BaseRs extends BaseResource {
      * @throws IOException If fails
      */
     protected final boolean granted(final Talk talk) throws IOException {
-        final XML xml;
-        try {
-            xml = new Profiles().fetch(talk).read();
-        } catch (final Profile.ConfigException ex) {
-            throw this.flash().redirect(this.uriInfo().getBaseUri(), ex);
-        }
+        final Collection<String> readers = this.readers(talk);
         final boolean granted;
-        final Collection<String> readers = xml.xpath(
-            "/p/entry[@key='readers']/item/text()"
-        );
         if (readers.isEmpty()) {
             granted = true;
         } else {
@@ -228,4 +232,31 @@ public class BaseRs extends BaseResource {
         return granted;
     }
 
+    /**
+     * Readers of the repository of the talk, from its .rultor.yml.
+     *
+     * <p>They are remembered for a few minutes, per repository, in order
+     * not to fetch and parse the profile from Github on every page view.
+     *
+     * @param talk Talk to use
+     * @return Readers, empty if everybody can read
+     * @throws IOException If fails
+     */
+    private Collection<String> readers(final Talk talk) throws IOException {
+        Collection<String> readers;
+        try {
+            final Profile profile = new Profiles().fetch(talk);
+            readers = BaseRs.READERS.getIfPresent(profile.name());
+            if (readers == null) {
+                readers = profile.read().xpath(
+                    "/p/entry[@key='readers']/item/text()"
+                );
+                BaseRs.READERS.put(profile.name(), readers);
+            }
+        } catch (final Profile.ConfigException ex) {
+            throw this.flash().redirect(this.uriInfo().getBaseUri(), ex);
+        }
+        return readers;
+    }
+
 }
@@ -29,12 +29,27 @@
  */
 package com.rultor.web;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import com.jcabi.aspects.Tv;
+import com.jcabi.xml.XML;
+import com.rultor.spi.Talk;
+import com.rultor.spi.XPathQuery;
 import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import javax.validation.constraints.NotNull;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.CharEncoding;
@@ -42,6 +57,11 @@ import org.apache.commons.lang3.CharEncoding;
 /**
  * Button.
  *
+ * <p>The button shows the outcome of the latest build in the repo:
+ * green if it succeeded, red if it failed and grey if there were no
+ * builds yet or the repo is private. Outcomes are cached for a minute,
+ * since buttons are requested much more often than builds happen.
+ *
  * @author Yegor Bugayenko (yegor@tpc2.com)
  * @version $Id$
  * @since 1.26
@@ -49,6 +69,42 @@ import org.apache.commons.lang3.CharEncoding;
 @Path("/b/{name : [/a-zA-Z0-9_\\-\\.]+}")
 public final class ButtonRs extends BaseRs {
 
+    /**
+     * SVG template.
+     */
+    private static final String TEMPLATE = ButtonRs.template();
+
+    /**
+     * Colors of statuses.
+     */
+    private static final Map<String, String> COLORS =
+        new ImmutableMap.Builder<String, String>()
+            .put("success", "#348C62")
+            .put("failure", "#C0392B")
+            .put("unknown", "#9F9F9F")
+            .build();
+
+    /**
+     * Statuses of repos.
+     */
+    private static final Cache<String, String> STATUSES =
+        CacheBuilder.newBuilder()
+            .maximumSize(Tv.THOUSAND)
+            .expireAfterWrite(1L, TimeUnit.MINUTES)
+            .build();
+
+    /**
+     * Public talk.
+     */
+    private static final XPathQuery PUBLIC =
+        new XPathQuery("/talk[@public='true']");
+
+    /**
+     * Title of the latest archived log.
+     */
+    private static final XPathQuery TITLE =
+        new XPathQuery("/talk/archive/log[last()]/@title");
+
     /**
      * Repo name.
      */
@@ -66,23 +122,78 @@ public final class ButtonRs extends BaseRs {
 
     /**
      * SVG button.
+     * @param request HTTP request
      * @return SVG
      * @throws IOException If fails
      */
     @GET
     @Path("/")
-    public Response svg() throws IOException {
+    public Response svg(@Context final Request request) throws IOException {
         assert this.name != null;
-        return Response.ok()
-            .type("image/svg+xml")
+        String status = ButtonRs.STATUSES.getIfPresent(this.name);
+        if (status == null) {
+            status = this.status();
+            ButtonRs.STATUSES.put(this.name, status);
+        }
+        final EntityTag etag = new EntityTag(status);
+        Response.ResponseBuilder builder =
+            request.evaluatePreconditions(etag);
+        if (builder == null) {
+            builder = Response.ok()
+                .type("image/svg+xml")
+                .entity(
+                    ButtonRs.TEMPLATE
+                        .replace("{status}", status)
+                        .replace("{color}", ButtonRs.COLORS.get(status))
+                );
+        }
+        return builder
+            .tag(etag)
             .header(HttpHeaders.CACHE_CONTROL, "no-cache")
-            .entity(
-                IOUtils.toString(
-                    this.getClass().getResourceAsStream("button.svg"),
-                    CharEncoding.UTF_8
-                )
-            )
             .build();
     }
 
+    /**
+     * Find the outcome of the latest build in the repo.
+     * @return Status
+     * @throws IOException If fails
+     */
+    private String status() throws IOException {
+        String status = "unknown";
+        for (final Talk talk : Iterables.limit(
+            this.talks().siblings(this.name, new Date(Long.MAX_VALUE)),
+            Tv.TEN
+        )) {
+            final XML xml = talk.read();
+            if (!ButtonRs.PUBLIC.exists(xml)) {
+                break;
+            }
+            final List<String> titles = ButtonRs.TITLE.xpath(xml);
+            if (!titles.isEmpty()) {
+                if (titles.get(0).contains("(SUCCESS)")) {
+                    status = "success";
+                } else {
+                    status = "failure";
+                }
+                break;
+            }
+        }
+        return status;
+    }
+
+    /**
+     * Load SVG template.
+     * @return Template
+     */
+    private static String template() {
+        try {
+            return IOUtils.toString(
+                ButtonRs.class.getResourceAsStream("button.svg"),
+                CharEncoding.UTF_8
+            );
+        } catch (final IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
 }
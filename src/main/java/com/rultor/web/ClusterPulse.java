@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.web;
+
+import com.rultor.dynamo.DyTicks;
+import com.rultor.spi.Pulse;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Pulse of all nodes of the cluster, refreshed in background.
+ *
+ * <p>Every refresh fetches only ticks published since the previous
+ * one and adds them to in-memory ring buffers, one per node. A few
+ * minutes before the previous refresh are fetched again, because a
+ * long tick is published when it ends, long after it started; ticks
+ * already seen are skipped. Ticks older than a week are deleted from
+ * Dynamo once an hour.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@ToString(of = "ticks")
+@EqualsAndHashCode(of = "ticks")
+final class ClusterPulse implements Callable<Integer> {
+
+    /**
+     * How far back to look again on every refresh, in msec.
+     */
+    private static final long OVERLAP = TimeUnit.MINUTES.toMillis(10L);
+
+    /**
+     * How long to keep ticks, in msec.
+     */
+    private static final long HISTORY = TimeUnit.DAYS.toMillis(7L);
+
+    /**
+     * How often to delete old ticks, in msec.
+     */
+    private static final long PRUNING = TimeUnit.HOURS.toMillis(1L);
+
+    /**
+     * Ticks in Dynamo.
+     */
+    private final transient DyTicks ticks;
+
+    /**
+     * Ticks by nodes.
+     */
+    private final transient ConcurrentMap<String, Ticks> nodes;
+
+    /**
+     * Start of the latest tick seen, by nodes.
+     */
+    private final transient ConcurrentMap<String, Long> seen;
+
+    /**
+     * Start of the latest tick seen in the cluster.
+     */
+    private final transient AtomicLong mark;
+
+    /**
+     * When old ticks were deleted last time.
+     */
+    private final transient AtomicLong pruned;
+
+    /**
+     * Ctor.
+     * @param tcks Ticks in Dynamo
+     */
+    ClusterPulse(final DyTicks tcks) {
+        this.ticks = tcks;
+        this.nodes = new ConcurrentHashMap<String, Ticks>(0);
+        this.seen = new ConcurrentHashMap<String, Long>(0);
+        this.mark = new AtomicLong(
+            System.currentTimeMillis() - ClusterPulse.HISTORY
+        );
+        this.pruned = new AtomicLong();
+    }
+
+    /**
+     * Ticks of all nodes, as of the last refresh.
+     * @return Ticks by node names
+     */
+    public Map<String, Iterable<Pulse.Tick>> series() {
+        final Map<String, Iterable<Pulse.Tick>> series =
+            new TreeMap<String, Iterable<Pulse.Tick>>();
+        for (final Map.Entry<String, Ticks> node : this.nodes.entrySet()) {
+            series.put(node.getKey(), node.getValue().ticks());
+        }
+        return Collections.unmodifiableMap(series);
+    }
+
+    @Override
+    public Integer call() throws Exception {
+        final long now = System.currentTimeMillis();
+        final Map<String, Collection<Pulse.Tick>> fresh =
+            this.ticks.since(this.mark.get() - ClusterPulse.OVERLAP);
+        int total = 0;
+        for (final Map.Entry<String, Collection<Pulse.Tick>> node
+            : fresh.entrySet()) {
+            final String name = node.getKey();
+            this.nodes.putIfAbsent(
+                name,
+                new Ticks(
+                    (int) TimeUnit.MILLISECONDS.toMinutes(ClusterPulse.HISTORY)
+                )
+            );
+            this.seen.putIfAbsent(name, 0L);
+            for (final Pulse.Tick tick : node.getValue()) {
+                if (tick.start() > this.seen.get(name)) {
+                    this.nodes.get(name).add(tick);
+                    this.seen.put(name, tick.start());
+                    if (tick.start() > this.mark.get()) {
+                        this.mark.set(tick.start());
+                    }
+                    ++total;
+                }
+            }
+        }
+        if (now - this.pruned.get() > ClusterPulse.PRUNING) {
+            this.ticks.prune(
+                now - ClusterPulse.HISTORY - ClusterPulse.OVERLAP
+            );
+            this.pruned.set(now);
+        }
+        return total;
+    }
+
+}
@@ -29,8 +29,8 @@
  */
 package com.rultor.web;
 
-import com.google.common.collect.Iterables;
-import com.google.common.collect.Lists;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.jcabi.aspects.Tv;
 import com.jcabi.xml.XML;
 import com.jcabi.xml.XMLDocument;
@@ -40,14 +40,16 @@ import com.rexsl.page.JaxbBundle;
 import com.rexsl.page.Link;
 import com.rexsl.page.PageBuilder;
 import com.rultor.spi.Pulse;
-import com.rultor.spi.Talk;
-import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 import org.ocpsoft.prettytime.PrettyTime;
 import org.xembly.Directives;
@@ -61,6 +63,7 @@ import org.xembly.Xembler;
  * @version $Id$
  * @since 1.0
  * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ * @checkstyle MultipleStringLiteralsCheck (500 lines)
  */
 @Path("/")
 public final class HomeRs extends BaseRs {
@@ -72,6 +75,15 @@ public final class HomeRs extends BaseRs {
         HomeRs.class.getResourceAsStream("pulse.xsl")
     );
 
+    /**
+     * Rendered SVGs, by hours, the latest tick and the minute.
+     */
+    private static final Cache<String, String> SVGS =
+        CacheBuilder.newBuilder()
+            .maximumSize(Tv.TEN)
+            .expireAfterWrite(1L, TimeUnit.MINUTES)
+            .build();
+
     /**
      * Get entrance page JAX-RS response.
      * @return The JAX-RS response
@@ -85,16 +97,11 @@ public final class HomeRs extends BaseRs {
             .init(this)
             .append(
                 new JaxbBundle("recent").add(
-                    new JaxbBundle.Group<Talk>(
-                        Iterables.limit(this.talks().recent(), Tv.FIVE)
-                    ) {
+                    new JaxbBundle.Group<RecentTalks.Entry>(this.recent()) {
                         @Override
-                        public JaxbBundle bundle(final Talk talk) {
-                            try {
-                                return HomeRs.bundle(talk);
-                            } catch (final IOException ex) {
-                                throw new IllegalStateException(ex);
-                            }
+                        public JaxbBundle bundle(
+                            final RecentTalks.Entry entry) {
+                            return HomeRs.bundle(entry);
                         }
                     }
                 )
@@ -121,6 +128,7 @@ public final class HomeRs extends BaseRs {
 
     /**
      * Build SVG.
+     * @param hours How many hours to show, one by default
      * @return The JAX-RS response
      * @since 1.21
      * @throws ImpossibleModificationException If fails
@@ -128,61 +136,157 @@ public final class HomeRs extends BaseRs {
     @GET
     @Path("/svg")
     @Produces("image/svg+xml")
-    public String svg() throws ImpossibleModificationException {
-        return HomeRs.PULSE.transform(
-            HomeRs.dirs(this.ticks())
-        ).nodes("/*").get(0).toString();
+    public String svg(@QueryParam("hours") final String hours)
+        throws ImpossibleModificationException {
+        return HomeRs.render(
+            "node",
+            Collections.singletonMap(
+                "",
+                Pulse.class.cast(
+                    this.servletContext().getAttribute(Pulse.class.getName())
+                ).ticks()
+            ),
+            hours
+        );
+    }
+
+    /**
+     * Build SVG of all nodes of the cluster, one series per node.
+     * @param hours How many hours to show, one by default
+     * @return The JAX-RS response
+     * @since 2.0
+     * @throws ImpossibleModificationException If fails
+     */
+    @GET
+    @Path("/cluster")
+    @Produces("image/svg+xml")
+    public String cluster(@QueryParam("hours") final String hours)
+        throws ImpossibleModificationException {
+        final Object cluster = this.servletContext().getAttribute(
+            ClusterPulse.class.getName()
+        );
+        final Map<String, Iterable<Pulse.Tick>> series;
+        if (cluster == null) {
+            series = Collections.emptyMap();
+        } else {
+            series = ClusterPulse.class.cast(cluster).series();
+        }
+        return HomeRs.render("cluster", series, hours);
     }
 
     /**
-     * Turn talk into a JAXB bundle.
-     * @param talk Talk
+     * Turn recent talk into a JAXB bundle.
+     * @param entry Recent talk
      * @return Bundle
-     * @throws IOException If fails
      */
-    private static JaxbBundle bundle(final Talk talk) throws IOException {
-        JaxbBundle bundle = new JaxbBundle("talk", talk.name())
-            .attr("timeago", new PrettyTime().format(talk.updated()));
-        final XML xml = talk.read();
-        if (!xml.nodes("/talk/wire/href").isEmpty()) {
-            bundle = bundle.attr(
-                "href",
-                talk.read().xpath("/talk/wire/href/text()").get(0)
-            );
+    private static JaxbBundle bundle(final RecentTalks.Entry entry) {
+        JaxbBundle bundle = new JaxbBundle("talk", entry.name())
+            .attr("timeago", new PrettyTime().format(entry.updated()));
+        if (!entry.href().isEmpty()) {
+            bundle = bundle.attr("href", entry.href());
         }
         return bundle;
     }
 
+    /**
+     * Render SVG.
+     *
+     * <p>SVG is rendered again only when a new tick lands or a minute
+     * passes, since the age of the latest tick is shown.
+     *
+     * @param scope Name of the scope, for the cache
+     * @param series Ticks by node names
+     * @param hours How many hours to show, one by default
+     * @return SVG
+     * @throws ImpossibleModificationException If fails
+     */
+    private static String render(final String scope,
+        final Map<String, Iterable<Pulse.Tick>> series, final String hours)
+        throws ImpossibleModificationException {
+        int period = 1;
+        if (hours != null && hours.matches("[0-9]{1,3}")) {
+            period = Math.max(
+                1,
+                Math.min(
+                    Integer.parseInt(hours),
+                    (int) TimeUnit.DAYS.toHours((long) Tv.SEVEN)
+                )
+            );
+        }
+        long latest = 0L;
+        for (final Iterable<Pulse.Tick> ticks : series.values()) {
+            for (final Pulse.Tick tick : ticks) {
+                latest = Math.max(latest, tick.start());
+            }
+        }
+        final long now = System.currentTimeMillis();
+        final String key = String.format(
+            "%s:%d:%d:%d", scope, period, latest,
+            TimeUnit.MILLISECONDS.toMinutes(now)
+        );
+        String svg = HomeRs.SVGS.getIfPresent(key);
+        if (svg == null) {
+            svg = HomeRs.PULSE.transform(
+                HomeRs.dirs(series, now, TimeUnit.HOURS.toMillis(period))
+            ).nodes("/*").get(0).toString();
+            HomeRs.SVGS.put(key, svg);
+        }
+        return svg;
+    }
+
     /**
      * Turn ticks into XML.
-     * @param ticks Ticks
+     * @param series Ticks by node names
+     * @param now Current time
+     * @param width Period to show, in msec
      * @return XML
      * @throws ImpossibleModificationException If fails
      */
-    private static XML dirs(final Collection<Pulse.Tick> ticks)
+    private static XML dirs(final Map<String, Iterable<Pulse.Tick>> series,
+        final long now, final long width)
         throws ImpossibleModificationException {
-        final long now = System.currentTimeMillis();
-        final Directives dirs = new Directives().add("pulse");
-        for (final Pulse.Tick tick : ticks) {
-            dirs.add("tick")
-                .attr("total", Integer.toString(tick.total()))
-                .attr("start", Long.toString(tick.start() - now))
-                .attr("msec", Long.toString(tick.duration()))
-                .up();
+        final Directives dirs = new Directives().add("pulse")
+            .attr("width", Long.toString(width));
+        for (final Map.Entry<String, Iterable<Pulse.Tick>> node
+            : series.entrySet()) {
+            dirs.add("node").attr("name", node.getKey());
+            for (final Pulse.Tick tick : node.getValue()) {
+                if (tick.start() < now - width) {
+                    continue;
+                }
+                dirs.add("tick")
+                    .attr("total", Integer.toString(tick.total()))
+                    .attr("start", Long.toString(tick.start() - now))
+                    .attr("msec", Long.toString(tick.duration()));
+                for (final Map.Entry<String, Long> stage
+                    : tick.stages().entrySet()) {
+                    dirs.add("stage")
+                        .attr("name", stage.getKey())
+                        .attr("msec", Long.toString(stage.getValue()))
+                        .up();
+                }
+                dirs.up();
+            }
+            dirs.up();
         }
         return new XMLDocument(new Xembler(dirs).xml());
     }
 
     /**
-     * Get all ticks.
-     * @return Ticks
+     * Recent talks, refreshed in background.
+     * @return Recent talks
      */
-    private Collection<Pulse.Tick> ticks() {
-        return Lists.newArrayList(
-            Pulse.class.cast(
-                this.servletContext().getAttribute(Pulse.class.getName())
-            ).ticks()
+    private Collection<RecentTalks.Entry> recent() {
+        final Object recent = this.servletContext().getAttribute(
+            RecentTalks.class.getName()
         );
+        final Collection<RecentTalks.Entry> entries;
+        if (recent == null) {
+            entries = Collections.emptyList();
+        } else {
+            entries = RecentTalks.class.cast(recent).entries();
+        }
+        return entries;
     }
 
 }
@@ -33,7 +33,7 @@ import co.stateful.RtSttc;
 import co.stateful.Sttc;
 import co.stateful.cached.CdSttc;
 import co.stateful.retry.ReSttc;
-import com.google.common.collect.EvictingQueue;
+import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.jcabi.aspects.Cacheable;
 import com.jcabi.aspects.Loggable;
 import com.jcabi.aspects.Timeable;
@@ -49,20 +49,34 @@ import com.jcabi.log.VerboseRunnable;
 import com.jcabi.log.VerboseThreads;
 import com.jcabi.manifests.Manifests;
 import com.jcabi.manifests.ServletMfs;
+import com.jcabi.s3.Ocket;
 import com.jcabi.urn.URN;
 import com.rultor.Toggles;
 import com.rultor.agents.Agents;
+import com.rultor.agents.twitter.AsyncTwitter;
+import com.rultor.agents.twitter.OAuthTwitter;
+import com.rultor.dynamo.DyCounter;
 import com.rultor.dynamo.DyTalks;
+import com.rultor.dynamo.DyTicks;
+import com.rultor.dynamo.DyUpgrade;
 import com.rultor.profiles.Profiles;
 import com.rultor.spi.Profile;
 import com.rultor.spi.Pulse;
 import com.rultor.spi.Talk;
 import com.rultor.spi.Talks;
+import com.rultor.spi.Validated;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -97,29 +111,94 @@ public final class Lifespan implements ServletContextListener {
         Executors.newSingleThreadScheduledExecutor(new VerboseThreads());
 
     /**
-     * Ticks.
+     * Refresher of the front page.
      */
-    private final transient Collection<Pulse.Tick> list =
-        Collections.synchronizedCollection(
-            EvictingQueue.<Pulse.Tick>create(
-                (int) TimeUnit.HOURS.toMinutes(1L)
-            )
-        );
+    private final transient ScheduledExecutorService pages =
+        Executors.newSingleThreadScheduledExecutor(new VerboseThreads());
+
+    /**
+     * Background upgrade of talks, away from agents and pages.
+     */
+    private final transient ScheduledExecutorService upgrades =
+        Executors.newSingleThreadScheduledExecutor(new VerboseThreads());
+
+    /**
+     * Publisher of tweets, away from agents.
+     */
+    private final transient ScheduledExecutorService tweets =
+        Executors.newSingleThreadScheduledExecutor(new VerboseThreads());
+
+    /**
+     * Tweets waiting to be published by {@link #tweets}.
+     */
+    private final transient BlockingQueue<String> queue =
+        new LinkedBlockingQueue<String>(Tv.HUNDRED);
+
+    /**
+     * Ticks of the last week.
+     */
+    private final transient Ticks ticks =
+        new Ticks((int) TimeUnit.DAYS.toMinutes((long) Tv.SEVEN));
 
     @Override
     public void contextInitialized(final ServletContextEvent event) {
-        final Talks talks;
         try {
             Manifests.DEFAULT.append(new ServletMfs(event.getServletContext()));
-            talks = new DyTalks(
-                this.dynamo(), this.sttc().counters().get("rt-talk")
-            );
         } catch (final IOException ex) {
             throw new IllegalStateException(ex);
         }
+        final Talks talks = new DyTalks(this.dynamo());
         event.getServletContext().setAttribute(Talks.class.getName(), talks);
+        final RecentTalks recent = new RecentTalks(talks);
+        event.getServletContext().setAttribute(
+            RecentTalks.class.getName(), recent
+        );
+        this.pages.scheduleWithFixedDelay(
+            new VerboseRunnable(recent, true), 0L, 1L, TimeUnit.MINUTES
+        );
+        final ClusterPulse cluster = new ClusterPulse(
+            new DyTicks(this.dynamo())
+        );
+        event.getServletContext().setAttribute(
+            ClusterPulse.class.getName(), cluster
+        );
+        this.pages.scheduleWithFixedDelay(
+            new VerboseRunnable(cluster, true), 0L, 1L, TimeUnit.MINUTES
+        );
         // @checkstyle MultipleStringLiteralsCheck (1 line)
         if (!Manifests.read("Rultor-DynamoKey").startsWith("AAAAA")) {
+            this.seed();
+            this.restore();
+            this.pages.scheduleWithFixedDelay(
+                new VerboseRunnable(
+                    new Callable<Integer>() {
+                        @Override
+                        public Integer call() throws IOException {
+                            return Lifespan.this.persist();
+                        }
+                    },
+                    true
+                ),
+                Tv.TEN, Tv.TEN,
+                TimeUnit.MINUTES
+            );
+            final AsyncTwitter twitter = this.twitter();
+            this.tweets.scheduleWithFixedDelay(
+                new VerboseRunnable(
+                    new Callable<Boolean>() {
+                        @Override
+                        public Boolean call() {
+                            return twitter.publish();
+                        }
+                    },
+                    true
+                ),
+                twitter.pause(), twitter.pause(),
+                TimeUnit.MILLISECONDS
+            );
+            this.upgrades.schedule(
+                new VerboseRunnable(this.upgrade(), true), 1L, TimeUnit.MINUTES
+            );
             this.service.scheduleWithFixedDelay(
                 new VerboseRunnable(
                     new Callable<Long>() {
@@ -135,15 +214,7 @@ public final class Lifespan implements ServletContextListener {
             );
         }
         event.getServletContext().setAttribute(
-            Pulse.class.getName(),
-            new Pulse() {
-                @Override
-                public Iterable<Pulse.Tick> ticks() {
-                    return Collections.unmodifiableCollection(
-                        Lifespan.this.list
-                    );
-                }
-            }
+            Pulse.class.getName(), this.ticks
         );
     }
 
@@ -151,6 +222,16 @@ public final class Lifespan implements ServletContextListener {
     public void contextDestroyed(final ServletContextEvent event) {
         this.down.set(true);
         this.service.shutdown();
+        this.pages.shutdown();
+        this.upgrades.shutdownNow();
+        this.tweets.shutdown();
+        if (!Manifests.read("Rultor-DynamoKey").startsWith("AAAAA")) {
+            try {
+                this.persist();
+            } catch (final IOException ex) {
+                Logger.warn(this, "failed to save ticks: %[exception]s", ex);
+            }
+        }
     }
 
     /**
@@ -185,15 +266,21 @@ public final class Lifespan implements ServletContextListener {
     @Timeable(limit = Tv.FIVE, unit = TimeUnit.MINUTES)
     private long safe(final Talks talks) throws IOException {
         final long start = System.currentTimeMillis();
+        final Map<String, Long> stages = new LinkedHashMap<String, Long>(0);
+        final Toggles toggles = new Toggles();
         int total = 0;
-        if (new Toggles().readOnly()) {
+        if (toggles.readOnly()) {
             Logger.info(this, "read-only mode");
         } else {
-            total = this.routine(talks);
+            total = this.routine(talks, toggles.strict(), stages);
         }
         final long msec = System.currentTimeMillis() - start;
-        if (!this.list.add(new Pulse.Tick(start, msec, total))) {
-            throw new IllegalStateException("failed to add tick");
+        final Pulse.Tick tick = new Pulse.Tick(start, msec, total, stages);
+        this.ticks.add(tick);
+        try {
+            new DyTicks(this.dynamo()).add(this.node(), tick);
+        } catch (final IOException ex) {
+            Logger.warn(this, "failed to publish tick: %[exception]s", ex);
         }
         return msec;
     }
@@ -201,21 +288,135 @@ public final class Lifespan implements ServletContextListener {
     /**
      * Routine every-minute proc.
      * @param talks Talks
+     * @param strict Validate every talk loaded
+     * @param stages Durations of stages, to fill
      * @return Total talks processed
      * @throws IOException If fails
      */
-    private int routine(final Talks talks) throws IOException {
-        final Agents agents = new Agents(this.github(), this.sttc());
+    private int routine(final Talks talks, final boolean strict,
+        final Map<String, Long> stages) throws IOException {
+        final Agents agents = this.agents();
+        Pulse.Durations.start();
+        long start = System.currentTimeMillis();
         agents.starter().execute(talks);
+        stages.put("starter", System.currentTimeMillis() - start);
+        start = System.currentTimeMillis();
         final Profiles profiles = new Profiles();
-        int total = 0;
-        for (final Talk talk : talks.active()) {
-            ++total;
+        final Collection<Talk> loaded = new LinkedList<Talk>();
+        for (final Talk origin : talks.active()) {
+            final Talk talk = new Talk.Cached(origin);
+            if (strict) {
+                new Validated(talk.read()).xml();
+            }
+            loaded.add(talk);
             final Profile profile = profiles.fetch(talk);
             agents.agent(talk, profile).execute(talk);
         }
-        agents.closer().execute(talks);
-        return total;
+        stages.put("talks", System.currentTimeMillis() - start);
+        start = System.currentTimeMillis();
+        agents.closer().execute(new Talks.Loaded(talks, loaded));
+        stages.put("closer", System.currentTimeMillis() - start);
+        stages.putAll(Pulse.Durations.stop());
+        return loaded.size();
+    }
+
+    /**
+     * Seed the counter of talks from the legacy one, only once.
+     *
+     * <p>The failure is only logged, the counter will be seeded on
+     * the next start.
+     */
+    private void seed() {
+        try {
+            new DyCounter(this.dynamo(), DyTalks.COUNTER).seed(
+                this.sttc().counters().get("rt-talk")
+            );
+        } catch (final IOException ex) {
+            Logger.error(this, "failed to seed counter: %[exception]s", ex);
+        }
+    }
+
+    /**
+     * Load ticks saved before the restart, if any.
+     *
+     * <p>On the very first start there is nothing to load yet and the
+     * failure is only logged.
+     */
+    private void restore() {
+        try {
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            this.ocket().read(baos);
+            Logger.info(
+                this, "%d ticks restored",
+                this.ticks.load(new ByteArrayInputStream(baos.toByteArray()))
+            );
+        } catch (final IOException ex) {
+            Logger.warn(this, "failed to restore ticks: %[exception]s", ex);
+        }
+    }
+
+    /**
+     * Save ticks, to load them after the restart.
+     * @return Bytes saved
+     * @throws IOException If fails
+     */
+    private int persist() throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        this.ticks.save(baos);
+        final byte[] bytes = baos.toByteArray();
+        final ObjectMetadata meta = new ObjectMetadata();
+        meta.setContentType("application/octet-stream");
+        meta.setContentLength((long) bytes.length);
+        this.ocket().write(new ByteArrayInputStream(bytes), meta);
+        return bytes.length;
+    }
+
+    /**
+     * Background upgrade of all talks to the current schema.
+     * @return Callable
+     */
+    private Callable<Integer> upgrade() {
+        final Callable<Integer> upgrade = new DyUpgrade(this.dynamo());
+        return new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                int total = 0;
+                if (!new Toggles().readOnly()) {
+                    total = upgrade.call();
+                }
+                return total;
+            }
+        };
+    }
+
+    /**
+     * Agents, built once and reused in every tick.
+     * @return Agents
+     */
+    @Cacheable(forever = true)
+    private Agents agents() {
+        return new Agents(this.github(), this.sttc(), this.twitter());
+    }
+
+    /**
+     * Twitter, posting in background, by {@link #tweets}.
+     *
+     * <p>There is only one object, shared by the agents and the
+     * publisher, since it keeps the state of failed attempts.
+     *
+     * @return Twitter
+     */
+    @Cacheable(forever = true)
+    private AsyncTwitter twitter() {
+        return new AsyncTwitter(
+            new OAuthTwitter(
+                Manifests.read("Rultor-TwitterKey"),
+                Manifests.read("Rultor-TwitterSecret"),
+                Manifests.read("Rultor-TwitterToken"),
+                Manifests.read("Rultor-TwitterTokenSecret")
+            ),
+            this.queue
+        );
     }
 
     /**
@@ -241,6 +442,35 @@ public final class Lifespan implements ServletContextListener {
         );
     }
 
+    /**
+     * Name of this node in the cluster.
+     * @return Name of Heroku dyno or of the JVM
+     */
+    @Cacheable(forever = true)
+    private String node() {
+        String node = System.getenv("DYNO");
+        if (node == null || node.isEmpty()) {
+            node = ManagementFactory.getRuntimeMXBean().getName();
+        }
+        return node;
+    }
+
+    /**
+     * S3 object with saved ticks of this node.
+     * @return Ocket
+     */
+    @Cacheable(forever = true)
+    private Ocket ocket() {
+        return new com.jcabi.s3.retry.ReRegion(
+            new com.jcabi.s3.Region.Simple(
+                Manifests.read("Rultor-S3Key"),
+                Manifests.read("Rultor-S3Secret")
+            )
+        ).bucket(Manifests.read("Rultor-S3Bucket")).ocket(
+            String.format("pulse/%s.bin", this.node())
+        );
+    }
+
     /**
      * Make github.
      * @return Github
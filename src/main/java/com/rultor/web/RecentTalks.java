@@ -0,0 +1,174 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.web;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.log.Logger;
+import com.jcabi.xml.XML;
+import com.rultor.spi.Talk;
+import com.rultor.spi.Talks;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Recent talks for the front page, refreshed in background.
+ *
+ * <p>The front page is rendered from what was fetched during the
+ * last refresh, without any access to DynamoDB and without
+ * parsing of talks.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@ToString
+@EqualsAndHashCode(of = "talks")
+final class RecentTalks implements Callable<Integer> {
+
+    /**
+     * Talks.
+     */
+    private final transient Talks talks;
+
+    /**
+     * Recent talks, as of the last refresh.
+     */
+    private final transient AtomicReference<List<RecentTalks.Entry>> cache;
+
+    /**
+     * Ctor.
+     * @param tlks Talks
+     */
+    RecentTalks(final Talks tlks) {
+        this.talks = tlks;
+        this.cache = new AtomicReference<List<RecentTalks.Entry>>(
+            Collections.<RecentTalks.Entry>emptyList()
+        );
+    }
+
+    /**
+     * Recent talks, as of the last refresh.
+     * @return Talks
+     */
+    public Collection<RecentTalks.Entry> entries() {
+        return this.cache.get();
+    }
+
+    /**
+     * Refresh the list.
+     * @return Total talks found
+     * @throws IOException If fails
+     */
+    @Override
+    public Integer call() throws IOException {
+        final List<RecentTalks.Entry> entries =
+            new ArrayList<RecentTalks.Entry>(Tv.FIVE);
+        for (final Talk talk : this.talks.recent()) {
+            if (entries.size() >= Tv.FIVE) {
+                break;
+            }
+            final XML xml = talk.read();
+            final List<String> hrefs = xml.xpath("/talk/wire/href/text()");
+            final String href;
+            if (hrefs.isEmpty()) {
+                href = "";
+            } else {
+                href = hrefs.get(0);
+            }
+            entries.add(
+                new RecentTalks.Entry(talk.name(), href, talk.updated())
+            );
+        }
+        this.cache.set(Collections.unmodifiableList(entries));
+        Logger.info(this, "%d recent talks refreshed", entries.size());
+        return entries.size();
+    }
+
+    /**
+     * Recent talk.
+     */
+    @ToString
+    @EqualsAndHashCode(of = "name")
+    public static final class Entry {
+        /**
+         * Name of the talk.
+         */
+        private final transient String name;
+        /**
+         * Link to the talk, or empty if absent.
+         */
+        private final transient String href;
+        /**
+         * When updated, in msec.
+         */
+        private final transient long updated;
+        /**
+         * Ctor.
+         * @param nme Name
+         * @param link Link, or empty
+         * @param date When updated
+         */
+        Entry(final String nme, final String link, final Date date) {
+            this.name = nme;
+            this.href = link;
+            this.updated = date.getTime();
+        }
+        /**
+         * Name of the talk.
+         * @return Name
+         */
+        public String name() {
+            return this.name;
+        }
+        /**
+         * Link to the talk.
+         * @return Link, or empty if absent
+         */
+        public String href() {
+            return this.href;
+        }
+        /**
+         * When updated.
+         * @return Date
+         */
+        public Date updated() {
+            return new Date(this.updated);
+        }
+    }
+
+}
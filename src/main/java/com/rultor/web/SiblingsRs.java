@@ -38,6 +38,7 @@ import com.rexsl.page.Link;
 import com.rexsl.page.PageBuilder;
 import com.rultor.agents.daemons.Home;
 import com.rultor.spi.Talk;
+import com.rultor.spi.XPathQuery;
 import java.io.IOException;
 import java.util.Date;
 import java.util.List;
@@ -61,6 +62,27 @@ import org.ocpsoft.prettytime.PrettyTime;
 @Path("/p/{name : [/a-zA-Z0-9_\\-\\.]+}")
 public final class SiblingsRs extends BaseRs {
 
+    /**
+     * Archived logs.
+     */
+    private static final XPathQuery LOGS = new XPathQuery("/talk/archive/log");
+
+    /**
+     * Link to the issue.
+     */
+    private static final XPathQuery HREF =
+        new XPathQuery("/talk/wire/href/text()");
+
+    /**
+     * ID of a log.
+     */
+    private static final XPathQuery ID = new XPathQuery("@id");
+
+    /**
+     * Title of a log.
+     */
+    private static final XPathQuery TITLE = new XPathQuery("@title");
+
     /**
      * Repo name.
      */
@@ -148,7 +170,7 @@ public final class SiblingsRs extends BaseRs {
     private JaxbBundle bundle(final Talk talk) throws IOException {
         final XML xml = talk.read();
         final JaxbBundle archive = new JaxbBundle("archive").add(
-            new JaxbBundle.Group<XML>(xml.nodes("/talk/archive/log")) {
+            new JaxbBundle.Group<XML>(SiblingsRs.LOGS.nodes(xml)) {
                 @Override
                 public JaxbBundle bundle(final XML log) {
                     return SiblingsRs.log(xml, log);
@@ -157,7 +179,7 @@ public final class SiblingsRs extends BaseRs {
         );
         return new JaxbBundle("talk")
             .add("name", talk.name()).up()
-            .add("href", xml.xpath("/talk/wire/href/text()").get(0)).up()
+            .add("href", SiblingsRs.HREF.xpath(xml).get(0)).up()
             .add("updated", Long.toString(talk.updated().getTime())).up()
             .add("timeago", new PrettyTime().format(talk.updated())).up()
             .add(archive);
@@ -170,11 +192,11 @@ public final class SiblingsRs extends BaseRs {
      * @return JAXB
      */
     private static JaxbBundle log(final XML talk, final XML log) {
-        final String hash = log.xpath("@id").get(0);
+        final String hash = SiblingsRs.ID.xpath(log).get(0);
         return new JaxbBundle("log")
             .add("id", hash).up()
             .add("href", new Home(talk, hash).uri().toString()).up()
-            .add("title", log.xpath("@title").get(0)).up();
+            .add("title", SiblingsRs.TITLE.xpath(log).get(0)).up();
     }
 
 }
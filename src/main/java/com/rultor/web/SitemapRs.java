@@ -29,70 +29,301 @@
  */
 package com.rultor.web;
 
-import com.jcabi.aspects.Tv;
 import com.jcabi.xml.XML;
 import com.rultor.Time;
 import com.rultor.agents.daemons.Home;
 import com.rultor.spi.Talk;
+import com.rultor.spi.XPathQuery;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
-import javax.ws.rs.Produces;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import org.apache.commons.lang3.CharEncoding;
 import org.apache.commons.lang3.StringEscapeUtils;
 
 /**
  * Sitemap.
  *
+ * <p>The sitemap is an index of monthly sitemaps, one for every month
+ * since rultor started. A monthly sitemap lists archived logs of public
+ * talks last updated in that month, in their short form, and is streamed
+ * to the client while talks are being fetched. Sitemaps of past months
+ * rarely change (only when an old talk is updated again and moves to
+ * the current month), so they are cached by clients for a day and
+ * revalidated with a fixed ETag, while the sitemap of the current month
+ * is cached for an hour.
+ *
  * @author Yegor Bugayenko (yegor@tpc2.com)
  * @version $Id$
  * @since 1.26
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ * @checkstyle MultipleStringLiteralsCheck (500 lines)
  */
 @Path("/sitemap.xml")
 public final class SitemapRs extends BaseRs {
 
     /**
-     * XML.
-     * @return XML
-     * @throws IOException If fails
+     * Namespace of sitemaps.
+     */
+    private static final String NAMESPACE =
+        "http://www.sitemaps.org/schemas/sitemap/0.9";
+
+    /**
+     * Year of the first talk.
+     */
+    private static final int YEAR = 2014;
+
+    /**
+     * Month of the first talk.
+     */
+    private static final int MONTH = Calendar.JULY;
+
+    /**
+     * Public talk.
+     */
+    private static final XPathQuery PUBLIC =
+        new XPathQuery("/talk[@public='true']");
+
+    /**
+     * IDs of archived logs.
+     */
+    private static final XPathQuery LOGS =
+        new XPathQuery("/talk/archive/log/@id");
+
+    /**
+     * Index of monthly sitemaps.
+     * @param request HTTP request
+     * @return The JAX-RS response
      */
     @GET
     @Path("/")
-    @Produces(MediaType.TEXT_XML)
-    public String xml() throws IOException {
-        final StringBuilder doc = new StringBuilder(Tv.THOUSAND).append(
-            "<urlset xmlns='http://www.sitemaps.org/schemas/sitemap/0.9'>"
+    public Response index(@Context final Request request) {
+        final Calendar now = SitemapRs.month(new Date());
+        final Date modified = now.getTime();
+        final EntityTag etag = SitemapRs.etag(now);
+        Response.ResponseBuilder builder = request.evaluatePreconditions(
+            modified, etag
         );
-        for (final Talk talk : this.talks().recent()) {
-            final XML xml = talk.read();
-            for (final String hash : xml.xpath("/talk/archive/log/@id")) {
-                doc.append(SitemapRs.toXML(talk, xml, hash));
+        if (builder == null) {
+            final StringBuilder doc = new StringBuilder(0);
+            final Calendar month = SitemapRs.month(new Date(0L));
+            month.set(Calendar.YEAR, SitemapRs.YEAR);
+            month.set(Calendar.MONTH, SitemapRs.MONTH);
+            while (!month.after(now)) {
+                doc.append("<sitemap><loc>")
+                    .append(
+                        this.uriInfo().getBaseUriBuilder()
+                            .clone()
+                            .path(SitemapRs.class)
+                            .path(SitemapRs.class, "month")
+                            .build(
+                                month.get(Calendar.YEAR),
+                                String.format(
+                                    "%02d", month.get(Calendar.MONTH) + 1
+                                )
+                            )
+                    )
+                    .append("</loc></sitemap>");
+                month.add(Calendar.MONTH, 1);
             }
+            final String body = doc.toString();
+            builder = this.stream(
+                new SitemapRs.Body() {
+                    @Override
+                    public void print(final Writer writer)
+                        throws IOException {
+                        writer.write(
+                            String.format(
+                                "<sitemapindex xmlns='%s'>",
+                                SitemapRs.NAMESPACE
+                            )
+                        );
+                        writer.write(body);
+                        writer.write("</sitemapindex>");
+                    }
+                }
+            ).lastModified(modified).tag(etag);
         }
-        return doc.append("</urlset>").toString();
+        return builder.build();
     }
 
     /**
-     * Convert XML and hash into node.
+     * Sitemap of one month.
+     *
+     * <p>Sitemaps of past months get a fixed ETag and the end of the
+     * month as their last modification time, so that clients can
+     * revalidate them and get 304 instead of the full list.
+     *
+     * @param request HTTP request
+     * @param year Year
+     * @param mon Month, from 1 to 12
+     * @return The JAX-RS response
+     */
+    @GET
+    @Path("/{year : [0-9]{4}}/{month : [0-9]{2}}")
+    public Response month(@Context final Request request,
+        @PathParam("year") final int year,
+        @PathParam("month") final int mon) {
+        final Calendar month = SitemapRs.month(new Date(0L));
+        month.set(Calendar.YEAR, year);
+        month.set(Calendar.MONTH, mon - 1);
+        final EntityTag etag = SitemapRs.etag(month);
+        final Date since = month.getTime();
+        month.add(Calendar.MONTH, 1);
+        final Date till = month.getTime();
+        final boolean closed = !till.after(new Date());
+        final CacheControl cache = new CacheControl();
+        Response.ResponseBuilder builder = null;
+        if (closed) {
+            cache.setMaxAge((int) TimeUnit.DAYS.toSeconds(1L));
+            builder = request.evaluatePreconditions(till, etag);
+        } else {
+            cache.setMaxAge((int) TimeUnit.HOURS.toSeconds(1L));
+        }
+        if (builder == null) {
+            builder = this.stream(
+                new SitemapRs.Body() {
+                    @Override
+                    public void print(final Writer writer)
+                        throws IOException {
+                        writer.write(
+                            String.format(
+                                "<urlset xmlns='%s'>", SitemapRs.NAMESPACE
+                            )
+                        );
+                        for (final Talk talk
+                            : SitemapRs.this.talks().archived(since, till)) {
+                            SitemapRs.print(writer, talk);
+                        }
+                        writer.write("</urlset>");
+                    }
+                }
+            );
+            if (closed) {
+                builder = builder.lastModified(till).tag(etag);
+            }
+        }
+        return builder.cacheControl(cache).build();
+    }
+
+    /**
+     * Stream the body, compressed if the client accepts it.
+     * @param body Body to stream
+     * @return Response builder
+     */
+    private Response.ResponseBuilder stream(final SitemapRs.Body body) {
+        final List<String> encodings = this.httpHeaders().getRequestHeader(
+            HttpHeaders.ACCEPT_ENCODING
+        );
+        final boolean gzip = encodings != null
+            && encodings.toString().contains("gzip");
+        Response.ResponseBuilder builder = Response.ok()
+            .type(MediaType.TEXT_XML)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+            .entity(
+                new StreamingOutput() {
+                    @Override
+                    public void write(final OutputStream output)
+                        throws IOException {
+                        OutputStream out = output;
+                        if (gzip) {
+                            out = new GZIPOutputStream(output);
+                        }
+                        final Writer writer = new OutputStreamWriter(
+                            out, CharEncoding.UTF_8
+                        );
+                        body.print(writer);
+                        writer.close();
+                    }
+                }
+            );
+        if (gzip) {
+            builder = builder.header("Content-Encoding", "gzip");
+        }
+        return builder;
+    }
+
+    /**
+     * Print all archived logs of the talk.
+     * @param writer Where to print
      * @param talk Talk
-     * @param xml Talk XML
-     * @param hash Hash
-     * @return XML text
      * @throws IOException If fails
      */
-    private static String toXML(final Talk talk, final XML xml,
-        final String hash) throws IOException {
-        return new StringBuilder(Tv.HUNDRED)
-            .append("<url><loc>")
-            .append(
-                StringEscapeUtils.escapeXml11(
-                    new Home(xml, hash).uri().toString()
-                )
-            )
-            .append("</loc><lastmod>")
-            .append(new Time(talk.updated()).iso())
-            .append("</lastmod></url>")
-            .toString();
+    private static void print(final Writer writer, final Talk talk)
+        throws IOException {
+        final XML xml = talk.read();
+        if (SitemapRs.PUBLIC.exists(xml)) {
+            final String lastmod = new Time(talk.updated()).iso();
+            for (final String hash : SitemapRs.LOGS.xpath(xml)) {
+                writer.write("<url><loc>");
+                writer.write(
+                    StringEscapeUtils.escapeXml11(
+                        new Home(xml, hash).uri().toString()
+                    )
+                );
+                writer.write("</loc><lastmod>");
+                writer.write(lastmod);
+                writer.write("</lastmod></url>");
+            }
+        }
+    }
+
+    /**
+     * Start of the month of the date, in UTC.
+     * @param date Date
+     * @return Calendar
+     */
+    private static Calendar month(final Date date) {
+        final Calendar month = Calendar.getInstance(
+            TimeZone.getTimeZone("UTC")
+        );
+        month.setTime(date);
+        month.set(Calendar.DAY_OF_MONTH, 1);
+        month.set(Calendar.HOUR_OF_DAY, 0);
+        month.set(Calendar.MINUTE, 0);
+        month.set(Calendar.SECOND, 0);
+        month.set(Calendar.MILLISECOND, 0);
+        return month;
+    }
+
+    /**
+     * ETag of the month.
+     * @param month Month
+     * @return ETag
+     */
+    private static EntityTag etag(final Calendar month) {
+        return new EntityTag(
+            String.format("%tY-%1$tm", month.getTime()), true
+        );
+    }
+
+    /**
+     * Body of a sitemap.
+     */
+    private interface Body {
+        /**
+         * Print it.
+         * @param writer Where to print
+         * @throws IOException If fails
+         */
+        void print(Writer writer) throws IOException;
     }
 
 }
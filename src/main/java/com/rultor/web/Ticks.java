@@ -0,0 +1,217 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.web;
+
+import com.rultor.spi.Pulse;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Ticks of the pulse, in a ring buffer.
+ *
+ * <p>The buffer is lock-free: a new tick replaces the oldest one and
+ * readers never block the routine. While a tick is being added, a reader
+ * may see it instead of the oldest one, that's why ticks are not
+ * guaranteed to be ordered by time.
+ *
+ * <p>Ticks can be saved to a stream in a compact binary form and loaded
+ * back, in order to survive restarts. Names of stages are saved only
+ * once, in a dictionary at the beginning of the stream, and every tick
+ * refers to them by their positions there.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@ToString(of = "next")
+@EqualsAndHashCode(of = "next")
+final class Ticks implements Pulse {
+
+    /**
+     * Version of the binary format.
+     */
+    private static final int VERSION = 2;
+
+    /**
+     * Version of the binary format, with names of stages in every tick.
+     */
+    private static final int LEGACY = 1;
+
+    /**
+     * Slots.
+     */
+    private final transient AtomicReferenceArray<Pulse.Tick> slots;
+
+    /**
+     * Position of the next tick.
+     */
+    private final transient AtomicLong next;
+
+    /**
+     * Ctor.
+     * @param size Maximum number of ticks to keep
+     */
+    Ticks(final int size) {
+        this.slots = new AtomicReferenceArray<Pulse.Tick>(size);
+        this.next = new AtomicLong();
+    }
+
+    @Override
+    public Iterable<Pulse.Tick> ticks() {
+        final long end = this.next.get();
+        final int size = this.slots.length();
+        final List<Pulse.Tick> list = new ArrayList<Pulse.Tick>(
+            (int) Math.min(end, (long) size)
+        );
+        for (long pos = Math.max(0L, end - size); pos < end; ++pos) {
+            final Pulse.Tick tick = this.slots.get((int) (pos % size));
+            if (tick != null) {
+                list.add(tick);
+            }
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Add a tick.
+     * @param tick Tick to add
+     */
+    public void add(final Pulse.Tick tick) {
+        final long pos = this.next.getAndIncrement();
+        this.slots.set((int) (pos % this.slots.length()), tick);
+    }
+
+    /**
+     * Save all ticks to the stream.
+     * @param stream Output stream
+     * @throws IOException If fails
+     */
+    public void save(final OutputStream stream) throws IOException {
+        final List<Pulse.Tick> list = new ArrayList<Pulse.Tick>(0);
+        for (final Pulse.Tick tick : this.ticks()) {
+            list.add(tick);
+        }
+        final Map<String, Integer> names =
+            new LinkedHashMap<String, Integer>(0);
+        for (final Pulse.Tick tick : list) {
+            for (final String name : tick.stages().keySet()) {
+                if (!names.containsKey(name)) {
+                    names.put(name, names.size());
+                }
+            }
+        }
+        final DataOutputStream data = new DataOutputStream(stream);
+        data.writeInt(Ticks.VERSION);
+        data.writeInt(names.size());
+        for (final String name : names.keySet()) {
+            data.writeUTF(name);
+        }
+        data.writeInt(list.size());
+        for (final Pulse.Tick tick : list) {
+            data.writeLong(tick.start());
+            data.writeLong(tick.duration());
+            data.writeInt(tick.total());
+            data.writeInt(tick.stages().size());
+            for (final Map.Entry<String, Long> stage
+                : tick.stages().entrySet()) {
+                data.writeInt(names.get(stage.getKey()));
+                data.writeLong(stage.getValue());
+            }
+        }
+        data.flush();
+    }
+
+    /**
+     * Load ticks from the stream, saved there by {@link #save(OutputStream)}.
+     * @param stream Input stream
+     * @return How many ticks were loaded
+     * @throws IOException If fails
+     */
+    public int load(final InputStream stream) throws IOException {
+        final DataInputStream data = new DataInputStream(stream);
+        final int version = data.readInt();
+        if (version != Ticks.VERSION && version != Ticks.LEGACY) {
+            throw new IOException(
+                String.format("unknown version of ticks: %d", version)
+            );
+        }
+        final List<String> names = new ArrayList<String>(0);
+        if (version == Ticks.VERSION) {
+            Ticks.names(data, names);
+        }
+        final int total = data.readInt();
+        for (int idx = 0; idx < total; ++idx) {
+            final long start = data.readLong();
+            final long msec = data.readLong();
+            final int talks = data.readInt();
+            final int count = data.readInt();
+            final Map<String, Long> stages =
+                new LinkedHashMap<String, Long>(count);
+            for (int stage = 0; stage < count; ++stage) {
+                final String name;
+                if (version == Ticks.VERSION) {
+                    name = names.get(data.readInt());
+                } else {
+                    name = data.readUTF();
+                }
+                stages.put(name, data.readLong());
+            }
+            this.add(new Pulse.Tick(start, msec, talks, stages));
+        }
+        return total;
+    }
+
+    /**
+     * Read the dictionary of names of stages.
+     * @param data Input stream
+     * @param names Where to put them
+     * @throws IOException If fails
+     */
+    private static void names(final DataInputStream data,
+        final List<String> names) throws IOException {
+        final int size = data.readInt();
+        for (int idx = 0; idx < size; ++idx) {
+            names.add(data.readUTF());
+        }
+    }
+
+}
@@ -68,6 +68,7 @@ final class TogglesInset implements Inset {
         final Toggles toggles = new Toggles();
         final JaxbBundle bundle = new JaxbBundle("toggles");
         bundle.add("read-only", Boolean.toString(toggles.readOnly())).up();
+        bundle.add("strict", Boolean.toString(toggles.strict())).up();
         if (!this.base.auth().identity().equals(Identity.ANONYMOUS)) {
             bundle.link(
                 new Link(
@@ -62,4 +62,22 @@ public final class TogglesRs extends BaseRs {
         );
     }
 
+    /**
+     * Set strict mode, with talks validated in every tick.
+     * @throws IOException If fails
+     * @since 2.0
+     */
+    @GET
+    @Path("/strict")
+    public void strict() throws IOException {
+        this.adminOnly();
+        final Toggles toggles = new Toggles();
+        toggles.toggleStrict();
+        throw this.flash().redirect(
+            this.uriInfo().getBaseUri(),
+            String.format("strict mode set to %B", toggles.strict()),
+            Level.INFO
+        );
+    }
+
 }
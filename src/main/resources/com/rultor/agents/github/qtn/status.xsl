@@ -47,6 +47,9 @@
             <xsl:when test="daemon[started]">
                 <xsl:apply-templates select="daemon"/>
             </xsl:when>
+            <xsl:when test="daemon[queued]">
+                <xsl:apply-templates select="daemon"/>
+            </xsl:when>
             <xsl:otherwise>
                 <xsl:text> * build is not running&#10;</xsl:text>
             </xsl:otherwise>
@@ -100,6 +103,15 @@
             <xsl:text>&#10;</xsl:text>
         </xsl:for-each>
     </xsl:template>
+    <xsl:template match="daemon[queued]">
+        <xsl:text> * build was queued </xsl:text>
+        <xsl:value-of select="r:ago(queued)"/>
+        <xsl:if test="position">
+            <xsl:text>, waiting at position #</xsl:text>
+            <xsl:value-of select="position"/>
+        </xsl:if>
+        <xsl:text>&#10;</xsl:text>
+    </xsl:template>
     <xsl:template match="daemon[started and dir]">
         <xsl:text> * build started </xsl:text>
         <xsl:value-of select="r:ago(started)"/>
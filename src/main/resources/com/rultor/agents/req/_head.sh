@@ -1,6 +1,38 @@
 #!/bin/sh
 
-git clone --branch="${head_branch}" --depth=10 "${head}" repo
+mirrors="${HOME}/.rultor/mirrors"
+mirror="${mirrors}/$(echo "${head}" | cksum | cut -d' ' -f1).git"
+mkdir -p "${mirrors}"
+if (
+  flock -w 600 9 \
+  && ( [ -d "${mirror}" ] || git init --bare "${mirror}" ) \
+  && git --git-dir="${mirror}" fetch --prune --tags "${head}" '+refs/heads/*:refs/heads/*' \
+  && touch "${mirror}" \
+  && if [ -z "$(find "${mirrors}" -maxdepth 1 -name "$(basename "${mirror}").size" -mmin -60)" ]; then du -sk "${mirror}" | cut -f1 > "${mirror}.size"; fi \
+  && git clone --branch="${head_branch}" "${mirror}" repo \
+  && git --git-dir=repo/.git remote set-url origin "${head}"
+) 9>"${mirror}.lock"; then
+  echo "Mirror of ${head} is up to date in ${mirror}"
+else
+  echo "Mirror of ${head} is not available, cloning from scratch"
+  rm -rf repo
+  git clone --branch="${head_branch}" --depth=10 "${head}" repo
+fi
+(
+  flock -n 7 || exit 0
+  if [ -n "$(find "${mirrors}" -maxdepth 1 -name evicted -mmin -60)" ]; then
+    exit 0
+  fi
+  touch "${mirrors}/evicted"
+  total=0
+  for dir in $(ls -td "${mirrors}"/*.git/); do
+    size=$(cat "${dir%/}.size" 2>/dev/null || du -sk "${dir}" | cut -f1)
+    total=$((total + size))
+    if [ "${total}" -gt $((20 * 1024 * 1024)) -a "${dir%/}" != "${mirror}" ]; then
+      ( flock -n 9 && rm -rf "${dir}" "${dir%/}.size" && echo "Mirror ${dir} removed" ) 9>"${dir%/}.lock" || true
+    fi
+  done
+) 7>"${mirrors}/evict.lock"
 cd repo
 git config user.email "me@rultor.com"
 git config user.name "rultor"
@@ -67,17 +99,6 @@ EOT
 echo "${scripts[@]}" >> script.sh
 
 function docker_when_possible {
-  while true; do
-    load=$(uptime | awk '{print $12}' | cut -d ',' -f 1)
-    if [ `echo $load \> 30 | bc` -eq 1 ]; then
-      echo "load average is ${load}, too high to run a new Docker container"
-      echo "I will try again in 15 seconds"
-      sleep 15
-    else
-      echo "load average is ${load}, low enough to run a new Docker container"
-      break
-    fi
-  done
   cd ..
   if [ -n "${directory}" ]; then
     # @todo #633 For some reason the pipes inside use_image are giving non-zero
@@ -90,8 +111,50 @@ function docker_when_possible {
   else
     use_image="${image}"
     docker pull "${use_image}"
+    mkdir -p "${HOME}/.rultor/images"
+    echo "${use_image}" > "${HOME}/.rultor/images/$(echo "${use_image}" | cksum | cut -d' ' -f1).image"
+  fi
+  volumes=()
+  if [ -n "${caches}" ]; then
+    caches_home="${HOME}/.rultor/caches"
+    cache="${caches_home}/$(echo "${head}" | cksum | cut -d' ' -f1)"
+    mkdir -p "${caches_home}"
+    exec 8>"${cache}.lock"
+    flock 8
+    mkdir -p "${cache}"
+    if [ -z "$(find "${caches_home}" -maxdepth 1 -name "$(basename "${cache}").size" -mmin -60)" ]; then
+      du -sk "${cache}" | cut -f1 > "${cache}.size"
+    fi
+    if [ "$(cat "${cache}.size")" -gt $((10 * 1024 * 1024)) ]; then
+      echo "Cache of ${head} is bigger than 10Gb, it is emptied"
+      sudo rm -rf "${cache}"
+      mkdir -p "${cache}"
+      echo 0 > "${cache}.size"
+    fi
+    touch "${cache}"
+    (
+      flock -n 7 || exit 0
+      if [ -n "$(find "${caches_home}" -maxdepth 1 -name evicted -mmin -60)" ]; then
+        exit 0
+      fi
+      touch "${caches_home}/evicted"
+      total=0
+      for dir in $(ls -td "${caches_home}"/*/); do
+        size=$(cat "${dir%/}.size" 2>/dev/null || du -sk "${dir}" | cut -f1)
+        total=$((total + size))
+        if [ "${total}" -gt $((50 * 1024 * 1024)) -a "${dir%/}" != "${cache}" ]; then
+          ( flock -n 9 && sudo rm -rf "${dir}" "${dir%/}.size" && echo "Cache ${dir} removed" ) 9>"${dir%/}.lock" || true
+        fi
+      done
+    ) 7>"${caches_home}/evict.lock"
+    for path in "${caches[@]}"; do
+      dir="${cache}/$(echo "${path}" | cksum | cut -d' ' -f1)"
+      mkdir -p "${dir}"
+      chmod a+rwx "${dir}"
+      volumes+=("--volume=${dir}:${path}")
+    done
   fi
-  docker run --rm -v "$(pwd):/main" "${vars[@]}" \
+  docker run --rm -v "$(pwd):/main" "${vars[@]}" "${volumes[@]}" \
     --memory=4g "--cidfile=$(pwd)/cid" -w=/main \
     --name="${container}" "${image}" /main/entry.sh
   if [ -n "${directory}" ]; then
@@ -0,0 +1,34 @@
+#!/bin/bash
+
+rm -f "$0"
+cd "$(dirname "$0")"
+exec 9>warm.lock
+flock -n 9 || exit 0
+
+for image in "${images[@]}"; do
+  stamp="$(echo "${image}" | cksum | cut -d' ' -f1).image"
+  if [ -n "$(find . -maxdepth 1 -name "${stamp}" -mmin -60)" ]; then
+    continue
+  fi
+  if docker pull "${image}"; then
+    echo "${image}" > "${stamp}"
+  fi
+done
+
+total=0
+for stamp in $(ls -t *.image 2>/dev/null); do
+  image=$(cat "${stamp}")
+  size=$(docker inspect -f '{{.Size}}' "${image}" 2>/dev/null)
+  if [ -z "${size}" ]; then
+    rm -f "${stamp}"
+    continue
+  fi
+  total=$((total + size))
+  if [ "${total}" -gt $((budget * 1024 * 1024 * 1024)) ]; then
+    if docker rmi "${image}"; then
+      echo "${image} removed, it was not used for a while"
+      rm -f "${stamp}"
+      total=$((total - size))
+    fi
+  fi
+done
@@ -33,7 +33,7 @@
     <xsl:output method="xml" omit-xml-declaration="yes"/>
     <xsl:template match="pulse">
         <xsl:variable name="height" select="5"/>
-        <xsl:variable name="width" select="3600000"/>
+        <xsl:variable name="width" select="number(@width)"/>
         <svg xmlns="http://www.w3.org/2000/svg" preserveAspectRatio="none" version="1.1"
             width="100%" height="100%">
             <xsl:attribute name="viewBox">
@@ -56,20 +56,35 @@
             <line x1="{-$width}" y1="{$height}" x2="0" y2="{$height}"
                 stroke="lightgray" stroke-width="4px"
                 vector-effect="non-scaling-stroke"/>
-            <xsl:for-each select="tick">
+            <xsl:variable name="colors"
+                select="('#348C62', '#2C6CB0', '#D68910', '#8E44AD', '#7F8C8D')"/>
+            <xsl:for-each select="node/tick">
+                <xsl:variable name="color"
+                    select="$colors[(count(../preceding-sibling::node) mod count($colors)) + 1]"/>
                 <rect height="{@total + 0.5}"
-                    x="{@start}" y="{$height - @total - 0.5}" fill="#348C62">
+                    x="{@start}" y="{$height - @total - 0.5}" fill="{$color}">
                     <xsl:attribute name="width">
-                        <xsl:choose>
-                            <xsl:when test="@msec &lt; 5000">5000</xsl:when>
-                            <xsl:otherwise><xsl:value-of select="@msec"/></xsl:otherwise>
-                        </xsl:choose>
+                        <xsl:value-of select="max((@msec, $width div 720))"/>
                     </xsl:attribute>
+                    <xsl:if test="stage">
+                        <title>
+                            <xsl:for-each select="stage">
+                                <xsl:if test="position() &gt; 1">
+                                    <xsl:text>, </xsl:text>
+                                </xsl:if>
+                                <xsl:value-of select="@name"/>
+                                <xsl:text>: </xsl:text>
+                                <xsl:value-of select="@msec"/>
+                                <xsl:text>ms</xsl:text>
+                            </xsl:for-each>
+                        </title>
+                    </xsl:if>
                 </rect>
             </xsl:for-each>
-            <xsl:variable name="age" select="-number(tick[last()]/@start) div 1000"/>
+            <xsl:variable name="age" select="-max(node/tick/@start) div 1000"/>
+            <xsl:variable name="scale" select="$width div 78"/>
             <text x="0" y="0" style="text-anchor:middle;"
-                transform="scale(46000,1) translate(-39,1.5)">
+                transform="scale({$scale},1) translate(-39,1.5)">
                 <xsl:choose>
                     <xsl:when test="not($age) or $age &gt; 600">
                         <tspan style="fill:red">
@@ -89,10 +104,21 @@
                 </xsl:choose>
             </text>
             <text x="0" y="0" style="text-anchor:end;"
-                transform="scale(46000,1) translate(0,1.5)">
+                transform="scale({$scale},1) translate(0,1.5)">
                 <xsl:value-of select="format-number($age,'0')"/>
                 <xsl:text> sec</xsl:text>
             </text>
+            <xsl:if test="count(node) &gt; 1">
+                <text x="0" y="0" style="text-anchor:start;"
+                    transform="scale({$scale},1) translate({-$width div $scale + 1},1.5)">
+                    <xsl:for-each select="node">
+                        <tspan style="fill:{$colors[(position() - 1) mod count($colors) + 1]}">
+                            <xsl:value-of select="@name"/>
+                            <xsl:text> </xsl:text>
+                        </tspan>
+                    </xsl:for-each>
+                </text>
+            </xsl:if>
         </svg>
     </xsl:template>
 </xsl:stylesheet>
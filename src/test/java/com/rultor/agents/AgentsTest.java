@@ -33,9 +33,11 @@ import co.stateful.Sttc;
 import co.stateful.mock.MkSttc;
 import com.jcabi.github.Github;
 import com.jcabi.github.mock.MkGithub;
+import com.rultor.agents.twitter.Twitter;
 import com.rultor.spi.Profile;
 import com.rultor.spi.Talk;
 import org.junit.Test;
+import org.mockito.Mockito;
 
 /**
  * Tests for ${@link Agents}.
@@ -56,7 +58,8 @@ public final class AgentsTest {
         final Github github = new MkGithub();
         final Sttc sttc = new MkSttc();
         final Profile profile = new Profile.Fixed();
-        new Agents(github, sttc).agent(talk, profile).execute(talk);
+        new Agents(github, sttc, Mockito.mock(Twitter.class))
+            .agent(talk, profile).execute(talk);
     }
 
 }
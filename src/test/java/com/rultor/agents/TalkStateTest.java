@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents;
+
+import com.jcabi.xml.XMLDocument;
+import org.apache.commons.lang3.StringUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Tests for ${@link TalkState}.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class TalkStateTest {
+
+    /**
+     * TalkState can find facts in a talk.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void findsFacts() throws Exception {
+        final TalkState state = new TalkState(
+            new XMLDocument(
+                StringUtils.join(
+                    "<talk name='a' number='1' later='false'>",
+                    "<request id='a1'><type>merge</type><args/></request>",
+                    "<daemon id='a1'><title>x</title><script>y</script>",
+                    "<started>2014-07-08T12:09:09Z</started></daemon>",
+                    "</talk>"
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            state.has(TalkState.Fact.REQUEST), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            state.has(TalkState.Fact.STARTED), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            state.has(TalkState.Fact.SUCCESS), Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            state.has(TalkState.Fact.ENDED), Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            state.has(TalkState.Fact.SHELL), Matchers.is(false)
+        );
+    }
+
+    /**
+     * TalkState.Guard can allow and deny states.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void checksGuards() throws Exception {
+        final TalkState state = new TalkState(
+            new XMLDocument(
+                "<talk name='b' number='1' later='false'><shell/></talk>"
+            )
+        );
+        MatcherAssert.assertThat(
+            TalkState.Guard.ANY.allows(state), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            new TalkState.Guard()
+                .with(TalkState.Fact.SHELL)
+                .without(TalkState.Fact.DAEMON)
+                .allows(state),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            new TalkState.Guard()
+                .with(TalkState.Fact.SHELL, TalkState.Fact.DAEMON)
+                .allows(state),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            new TalkState.Guard().without(TalkState.Fact.SHELL).allows(state),
+            Matchers.is(false)
+        );
+    }
+
+}
@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.daemons;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.matchers.XhtmlMatchers;
+import com.rultor.Time;
+import com.rultor.spi.Talk;
+import com.rultor.spi.Talks;
+import java.io.IOException;
+import java.util.Arrays;
+import org.hamcrest.MatcherAssert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.xembly.Directive;
+import org.xembly.Directives;
+
+/**
+ * Tests for ${@link AdmitsDaemons}.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class AdmitsDaemonsTest {
+
+    /**
+     * AdmitsDaemons can admit the most important daemon first.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void admitsByPriority() throws Exception {
+        final Talks talks = new Talks.InDir();
+        final long now = System.currentTimeMillis();
+        final Talk merge = AdmitsDaemonsTest.queued(
+            talks, "a/b", "merge", now - Tv.THOUSAND
+        );
+        final Talk release = AdmitsDaemonsTest.queued(
+            talks, "c/d", "release", now
+        );
+        new AdmitsDaemons(1, 1).execute(talks);
+        MatcherAssert.assertThat(
+            release.read(),
+            XhtmlMatchers.hasXPath("/talk/daemon[not(queued)]")
+        );
+        MatcherAssert.assertThat(
+            merge.read(),
+            XhtmlMatchers.hasXPath("/talk/daemon[queued and position=1]")
+        );
+    }
+
+    /**
+     * AdmitsDaemons can keep a daemon in the queue while its
+     * repository is busy.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void keepsDaemonOfBusyRepo() throws Exception {
+        final Talks talks = new Talks.InDir();
+        final long now = System.currentTimeMillis();
+        final Talk first = AdmitsDaemonsTest.queued(
+            talks, "x/y", "merge", now - Tv.THOUSAND
+        );
+        final Talk second = AdmitsDaemonsTest.queued(
+            talks, "x/y", "deploy", now
+        );
+        second.modify(
+            new Directives().xpath("/talk/daemon/queued").remove()
+        );
+        new AdmitsDaemons(Tv.TEN, 1).execute(talks);
+        MatcherAssert.assertThat(
+            first.read(),
+            XhtmlMatchers.hasXPath("/talk/daemon[queued and position=1]")
+        );
+    }
+
+    /**
+     * AdmitsDaemons can leave the position alone if it didn't change.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void keepsUnchangedPosition() throws Exception {
+        final Talks talks = new Talks.InDir();
+        final long now = System.currentTimeMillis();
+        final Talk running = AdmitsDaemonsTest.queued(
+            talks, "e/f", "merge", now - Tv.THOUSAND
+        );
+        running.modify(
+            new Directives().xpath("/talk/daemon/queued").remove()
+        );
+        final Talk waiting = AdmitsDaemonsTest.queued(
+            talks, "g/h", "merge", now
+        );
+        waiting.modify(
+            new Directives().xpath("/talk/daemon").add("position").set("1")
+        );
+        final Talk talk = Mockito.mock(Talk.class);
+        Mockito.doReturn(waiting.read()).when(talk).read();
+        final Talks mocked = Mockito.mock(Talks.class);
+        Mockito.doReturn(Arrays.asList(running, talk)).when(mocked).active();
+        new AdmitsDaemons(1, 1).execute(mocked);
+        Mockito.verify(talk, Mockito.never()).modify(
+            Mockito.<Iterable<Directive>>any()
+        );
+    }
+
+    /**
+     * Create a talk with a queued daemon.
+     * @param talks Talks
+     * @param repo Name of the repository
+     * @param title Title of the daemon
+     * @param time When queued
+     * @return Talk
+     * @throws IOException If fails
+     */
+    private static Talk queued(final Talks talks, final String repo,
+        final String title, final long time) throws IOException {
+        final String name = String.format("talk-%d", time);
+        talks.create(repo, name);
+        final Talk talk = talks.get(name);
+        talk.modify(
+            new Directives().xpath("/talk")
+                .add("wire")
+                .add("href").set("http://example.com").up()
+                .add("github-repo").set(repo).up()
+                .add("github-issue").set("1").up()
+                .up()
+                .add("daemon")
+                .attr("id", "abcd")
+                .add("script").set("empty").up()
+                .add("title").set(title).up()
+                .add("queued").set(new Time(time).iso())
+        );
+        return talk;
+    }
+
+}
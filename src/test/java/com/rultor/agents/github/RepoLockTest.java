@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github;
+
+import co.stateful.Locks;
+import co.stateful.mock.MkSttc;
+import com.jcabi.github.Repo;
+import com.jcabi.github.mock.MkGithub;
+import com.jcabi.matchers.XhtmlMatchers;
+import com.jcabi.xml.XMLDocument;
+import com.rultor.spi.Talk;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Tests for ${@link RepoLock}.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class RepoLockTest {
+
+    /**
+     * RepoLock can lock and unlock a repo only once.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void locksAndUnlocks() throws Exception {
+        final Repo repo = new MkGithub().randomRepo();
+        final Locks locks = new MkSttc().locks();
+        final Talk first = new Talk.InFile(
+            new XMLDocument("<talk name='first' number='1' later='false'/>")
+        );
+        final Talk second = new Talk.InFile(
+            new XMLDocument("<talk name='second' number='2' later='false'/>")
+        );
+        MatcherAssert.assertThat(
+            new RepoLock(locks, repo).lock(first), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            new RepoLock(locks, repo).lock(second), Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            new RepoLock(locks, repo).unlock(second), Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            new RepoLock(locks, repo).unlock(first), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            new RepoLock(locks, repo).lock(second), Matchers.is(true)
+        );
+    }
+
+    /**
+     * RepoLock can mark the talk holding the lock and unlock only
+     * the marked talk.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void unlocksOnlyMarkedTalk() throws Exception {
+        final Repo repo = new MkGithub().randomRepo();
+        final Locks locks = new MkSttc().locks();
+        final Talk holder = new Talk.InFile(
+            new XMLDocument("<talk name='holder' number='3' later='false'/>")
+        );
+        final Talk idle = new Talk.InFile(
+            new XMLDocument("<talk name='idle' number='4' later='false'/>")
+        );
+        MatcherAssert.assertThat(
+            new RepoLock(locks, repo).lock(holder), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            holder.read(),
+            XhtmlMatchers.hasXPath(
+                String.format("/talk/lock[.='%s']", repo.coordinates())
+            )
+        );
+        MatcherAssert.assertThat(
+            new RepoLock(locks, repo).unlock(idle), Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            new RepoLock(locks, repo).unlock(holder), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            holder.read(), XhtmlMatchers.hasXPath("/talk[not(lock)]")
+        );
+        MatcherAssert.assertThat(
+            new RepoLock(locks, repo).lock(idle), Matchers.is(true)
+        );
+    }
+
+}
@@ -29,12 +29,17 @@
  */
 package com.rultor.agents.github;
 
+import co.stateful.Locks;
 import co.stateful.mock.MkSttc;
 import com.jcabi.github.Issue;
 import com.jcabi.github.Repo;
 import com.jcabi.github.mock.MkGithub;
+import com.jcabi.matchers.XhtmlMatchers;
 import com.rultor.spi.SuperAgent;
+import com.rultor.spi.Talk;
 import com.rultor.spi.Talks;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.junit.Test;
 import org.xembly.Directives;
 
@@ -72,4 +77,36 @@ public final class UnlocksRepoTest {
         agent.execute(talks);
     }
 
+    /**
+     * UnlocksRepo can unlock a repo locked by the talk.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void unlocksRepoLockedByTalk() throws Exception {
+        final Repo repo = new MkGithub().randomRepo();
+        final Issue issue = repo.issues().create("", "");
+        final Locks locks = new MkSttc().locks();
+        final Talks talks = new Talks.InDir();
+        final String name = "locked-talk";
+        talks.create("", name);
+        final Talk talk = talks.get(name);
+        talk.modify(
+            new Directives()
+                .xpath("/talk").add("wire")
+                .add("github-repo").set(repo.coordinates().toString()).up()
+                .add("github-issue").set(Integer.toString(issue.number())).up()
+                .add("href").set("#").up()
+        );
+        MatcherAssert.assertThat(
+            new RepoLock(locks, repo).lock(talk), Matchers.is(true)
+        );
+        new UnlocksRepo(locks, repo.github()).execute(talks);
+        MatcherAssert.assertThat(
+            talk.read(), XhtmlMatchers.hasXPath("/talk[not(lock)]")
+        );
+        MatcherAssert.assertThat(
+            new RepoLock(locks, repo).lock(talk), Matchers.is(true)
+        );
+    }
+
 }
@@ -83,6 +83,48 @@ public final class DockerRunTest {
         );
     }
 
+    /**
+     * DockerRun can fetch directories to cache.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void fetchesCaches() throws Exception {
+        MatcherAssert.assertThat(
+            new DockerRun(
+                new Profile.Fixed(
+                    new XMLDocument(
+                        StringUtils.join(
+                            "<p><entry key='docker'><entry key='cache'>",
+                            "<item>/home/r/.m2</item><item>/tmp/x</item>",
+                            "</entry></entry></p>"
+                        )
+                    )
+                ),
+                "/p/entry[@key='deploy']"
+            ).caches(),
+            Matchers.equalTo("( '/home/r/.m2' '/tmp/x' )")
+        );
+    }
+
+    /**
+     * DockerRun can reject a relative directory to cache.
+     * @throws Exception In case of error.
+     */
+    @Test(expected = Profile.ConfigException.class)
+    public void rejectsRelativeCache() throws Exception {
+        new DockerRun(
+            new Profile.Fixed(
+                new XMLDocument(
+                    StringUtils.join(
+                        "<p><entry key='docker'><entry key='cache'>",
+                        "m2</entry></entry></p>"
+                    )
+                )
+            ),
+            "/p/entry[@key='merge']"
+        ).caches();
+    }
+
     /**
      * DockerRun can fetch script.
      * @throws Exception In case of error.
@@ -170,6 +212,48 @@ public final class DockerRunTest {
         );
     }
 
+    /**
+     * DockerRun can fetch directories to cache.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void fetchesCaches() throws Exception {
+        MatcherAssert.assertThat(
+            new DockerRun(
+                new Profile.Fixed(
+                    new XMLDocument(
+                        StringUtils.join(
+                            "<p><entry key='docker'><entry key='cache'>",
+                            "<item>/home/r/.m2</item><item>/tmp/x</item>",
+                            "</entry></entry></p>"
+                        )
+                    )
+                ),
+                "/p/entry[@key='deploy']"
+            ).caches(),
+            Matchers.equalTo("( '/home/r/.m2' '/tmp/x' )")
+        );
+    }
+
+    /**
+     * DockerRun can reject a relative directory to cache.
+     * @throws Exception In case of error.
+     */
+    @Test(expected = Profile.ConfigException.class)
+    public void rejectsRelativeCache() throws Exception {
+        new DockerRun(
+            new Profile.Fixed(
+                new XMLDocument(
+                    StringUtils.join(
+                        "<p><entry key='docker'><entry key='cache'>",
+                        "m2</entry></entry></p>"
+                    )
+                )
+            ),
+            "/p/entry[@key='merge']"
+        ).caches();
+    }
+
     /**
      * DockerRun can fetch script.
      * @throws Exception In case of error.
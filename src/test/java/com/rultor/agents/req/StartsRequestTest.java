@@ -96,6 +96,27 @@ public final class StartsRequestTest {
         );
     }
 
+    /**
+     * StartsRequest can record a Docker image of the daemon.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void recordsDockerImage() throws Exception {
+        final Agent agent = new StartsRequest(new Profile.Fixed());
+        final Talk talk = new Talk.InFile();
+        talk.modify(
+            new Directives().xpath("/talk")
+                .add("request").attr("id", "abcd")
+                .add("type").set("deploy").up()
+                .add("args")
+        );
+        agent.execute(talk);
+        MatcherAssert.assertThat(
+            talk.read(),
+            XhtmlMatchers.hasXPath("/talk/daemon[image='yegor256/rultor']")
+        );
+    }
+
     /**
      * StartsRequest can start a request.
      * @throws Exception In case of error.
@@ -148,8 +169,6 @@ public final class StartsRequestTest {
                     )
                     .with(Matchers.containsString("Cloning into 'repo'...\n"))
                     .with(Matchers.containsString("docker_when_possible\n"))
-                    .with(Matchers.containsString("load average is "))
-                    .with(Matchers.containsString("low enough to run a"))
                     .with(
                         Matchers.containsString(
                             "DOCKER-5: --env=MAVEN_OPTS=-Xmx2g -Xms1g"
@@ -365,6 +384,7 @@ public final class StartsRequestTest {
             "set -x",
             "set -e",
             "set -o pipefail",
+            "export HOME=$(pwd)",
             "function docker {",
             "  for (( i=1; i<=$#; i++ )); do",
             "    echo \"DOCKER-$i: ${!i}\"",
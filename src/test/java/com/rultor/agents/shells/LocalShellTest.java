@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.shells;
+
+import java.io.ByteArrayOutputStream;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.CharEncoding;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for ${@link LocalShell}.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class LocalShellTest {
+
+    /**
+     * Temp directory.
+     * @checkstyle VisibilityModifierCheck (5 lines)
+     */
+    @Rule
+    public final transient TemporaryFolder temp = new TemporaryFolder();
+
+    /**
+     * LocalShell can execute a command.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void executesCommand() throws Exception {
+        final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        final ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        MatcherAssert.assertThat(
+            new LocalShell(this.temp.getRoot()).exec(
+                "cat > a.txt; cat a.txt; pwd; echo oops >&2; exit 3",
+                IOUtils.toInputStream("hello\n"),
+                stdout, stderr
+            ),
+            // @checkstyle MagicNumber (1 line)
+            Matchers.equalTo(3)
+        );
+        MatcherAssert.assertThat(
+            stdout.toString(CharEncoding.UTF_8),
+            Matchers.equalTo(
+                String.format(
+                    "hello\n%s\n", this.temp.getRoot().getCanonicalPath()
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            stderr.toString(CharEncoding.UTF_8),
+            Matchers.equalTo("oops\n")
+        );
+    }
+
+    /**
+     * LocalShell can recognize a local shell.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void recognizesLocalShell() throws Exception {
+        final String user = System.getProperty("user.name");
+        MatcherAssert.assertThat(
+            LocalShell.local("localhost", user), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            LocalShell.local("b1.rultor.com", user), Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            LocalShell.local("127.0.0.1", "somebody-else"), Matchers.is(false)
+        );
+    }
+
+}
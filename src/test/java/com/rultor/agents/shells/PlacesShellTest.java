@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.shells;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.immutable.Array;
+import com.jcabi.matchers.XhtmlMatchers;
+import com.rultor.spi.Agent;
+import com.rultor.spi.Talk;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.xembly.Directives;
+
+/**
+ * Tests for ${@link PlacesShell}.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class PlacesShellTest {
+
+    /**
+     * PlacesShell can place a daemon to a host with free capacity.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void placesDaemonToFreeHost() throws Exception {
+        final String user = System.getProperty("user.name");
+        final Agent agent = new PlacesShell(
+            new Farm(
+                new Array<Host>(
+                    new Host("localhost", 1, user, "key", 0),
+                    new Host("localhost", 2, user, "key", Tv.THOUSAND)
+                ),
+                Double.MAX_VALUE
+            )
+        );
+        final Talk talk = PlacesShellTest.talk();
+        agent.execute(talk);
+        MatcherAssert.assertThat(
+            talk.read(),
+            XhtmlMatchers.hasXPath("/talk/shell[@id='abcd' and port='2']")
+        );
+    }
+
+    /**
+     * PlacesShell can leave a daemon waiting when all hosts are busy.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void waitsWhenFarmIsBusy() throws Exception {
+        final Farm farm = new Farm(
+            new Array<Host>(
+                new Host(
+                    "localhost", 1, System.getProperty("user.name"), "", 1
+                )
+            ),
+            Double.MAX_VALUE
+        );
+        MatcherAssert.assertThat(
+            farm.load().place().isPresent(), Matchers.is(true)
+        );
+        final Talk talk = PlacesShellTest.talk();
+        new PlacesShell(farm).execute(talk);
+        MatcherAssert.assertThat(
+            talk.read(),
+            XhtmlMatchers.hasXPath("/talk[daemon and not(shell)]")
+        );
+    }
+
+    /**
+     * Make a talk with a new daemon.
+     * @return Talk
+     * @throws Exception In case of error.
+     */
+    private static Talk talk() throws Exception {
+        final Talk talk = new Talk.InFile();
+        talk.modify(
+            new Directives().xpath("/talk")
+                .add("daemon").attr("id", "abcd")
+                .add("title").set("merge").up()
+                .add("script").set("test")
+        );
+        return talk;
+    }
+
+}
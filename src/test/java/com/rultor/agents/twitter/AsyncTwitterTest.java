@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.twitter;
+
+import com.jcabi.aspects.Tv;
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Tests for {@link AsyncTwitter}.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class AsyncTwitterTest {
+
+    /**
+     * AsyncTwitter can post queued messages, retrying after failures.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void postsQueuedMessages() throws Exception {
+        final Twitter origin = Mockito.mock(Twitter.class);
+        final String msg = "hello, world!";
+        Mockito.doThrow(new IOException("oops")).doNothing()
+            .when(origin).post(msg);
+        final AsyncTwitter twitter = new AsyncTwitter(
+            origin, new LinkedBlockingQueue<String>(), 0L
+        );
+        twitter.post(msg);
+        twitter.post(msg);
+        Mockito.verify(origin, Mockito.never()).post(msg);
+        MatcherAssert.assertThat(twitter.publish(), Matchers.is(false));
+        MatcherAssert.assertThat(twitter.publish(), Matchers.is(true));
+        MatcherAssert.assertThat(twitter.publish(), Matchers.is(false));
+        Mockito.verify(origin, Mockito.times(2)).post(msg);
+    }
+
+    /**
+     * AsyncTwitter can drop a message after runtime failures.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void dropsMessageAfterRuntimeFailures() throws Exception {
+        final Twitter origin = Mockito.mock(Twitter.class);
+        final String msg = "broken";
+        Mockito.doThrow(new IllegalStateException("oops"))
+            .when(origin).post(msg);
+        final BlockingQueue<String> queue = new LinkedBlockingQueue<String>();
+        final AsyncTwitter twitter = new AsyncTwitter(origin, queue, 0L);
+        twitter.post(msg);
+        while (!queue.isEmpty()) {
+            MatcherAssert.assertThat(twitter.publish(), Matchers.is(false));
+        }
+        Mockito.verify(origin, Mockito.times(Tv.FIVE)).post(msg);
+    }
+
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.dynamo;
+
+import co.stateful.Counter;
+import co.stateful.mock.MkSttc;
+import com.jcabi.aspects.Tv;
+import com.jcabi.dynamo.Credentials;
+import com.jcabi.dynamo.Region;
+import com.jcabi.dynamo.retry.ReRegion;
+import com.jcabi.manifests.Manifests;
+import java.util.HashSet;
+import java.util.Set;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Integration case for {@link DyCounter}.
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class DyCounterITCase {
+
+    /**
+     * DyCounter can give out unique numbers after the legacy counter.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void givesOutUniqueNumbers() throws Exception {
+        final Counter legacy = new MkSttc().counters().get("");
+        final long floor = legacy.incrementAndGet((long) Tv.FIVE * Tv.HUNDRED);
+        final DyCounter counter = new DyCounter(
+            this.dynamo(), RandomStringUtils.randomAlphabetic(Tv.TEN), Tv.TEN
+        );
+        MatcherAssert.assertThat(counter.seed(legacy), Matchers.is(true));
+        MatcherAssert.assertThat(counter.seed(legacy), Matchers.is(false));
+        final Set<Long> numbers = new HashSet<Long>(0);
+        long previous = floor;
+        for (int idx = 0; idx < Tv.FIFTY; ++idx) {
+            final long number = counter.next();
+            MatcherAssert.assertThat(number, Matchers.greaterThan(previous));
+            numbers.add(number);
+            previous = number;
+        }
+        MatcherAssert.assertThat(numbers.size(), Matchers.equalTo(Tv.FIFTY));
+    }
+
+    /**
+     * DynamoDB region for tests.
+     * @return Region
+     */
+    private Region dynamo() {
+        final String key = Manifests.read("Rultor-DynamoKey");
+        Assume.assumeNotNull(key);
+        final String port = System.getProperty("dynamo.port");
+        Assume.assumeNotNull(port);
+        MatcherAssert.assertThat(key.startsWith("AAAA"), Matchers.is(true));
+        return new Region.Prefixed(
+            new ReRegion(
+                new Region.Simple(
+                    new Credentials.Direct(
+                        new Credentials.Simple(
+                            key,
+                            Manifests.read("Rultor-DynamoSecret")
+                        ),
+                        Integer.parseInt(port)
+                    )
+                )
+            ),
+            "rt-"
+        );
+    }
+
+}
@@ -29,7 +29,6 @@
  */
 package com.rultor.dynamo;
 
-import co.stateful.mock.MkSttc;
 import com.jcabi.dynamo.Credentials;
 import com.jcabi.dynamo.Region;
 import com.jcabi.dynamo.retry.ReRegion;
@@ -65,9 +64,7 @@ public final class DyTalksITCase {
      */
     @Test
     public void addsTalks() throws Exception {
-        final Talks talks = new DyTalks(
-            this.dynamo(), new MkSttc().counters().get("")
-        );
+        final Talks talks = new DyTalks(this.dynamo());
         final String name = "a5fe445";
         talks.create("hey/you", name);
         MatcherAssert.assertThat(
@@ -82,9 +79,7 @@ public final class DyTalksITCase {
      */
     @Test
     public void listsRecentTalks() throws Exception {
-        final Talks talks = new DyTalks(
-            this.dynamo(), new MkSttc().counters().get("")
-        );
+        final Talks talks = new DyTalks(this.dynamo());
         final String name = "yegor256/rultor#529";
         talks.create("a/b", name);
         final Talk talk = talks.get(name);
@@ -102,9 +97,7 @@ public final class DyTalksITCase {
     @Test
     @Ignore
     public void cachesRecentTalks() throws Exception {
-        final Talks talks = new DyTalks(
-            this.dynamo(), new MkSttc().counters().get("")
-        );
+        final Talks talks = new DyTalks(this.dynamo());
         final String first = "krzyk1/rultor#562";
         final String repo = "some/other";
         talks.create(repo, first);
@@ -132,9 +125,7 @@ public final class DyTalksITCase {
      */
     @Test
     public void listsSiblings() throws Exception {
-        final Talks talks = new DyTalks(
-            this.dynamo(), new MkSttc().counters().get("")
-        );
+        final Talks talks = new DyTalks(this.dynamo());
         final String repo = "repo1";
         talks.create(repo, "yegor256/rultor#9");
         final Date date = new Date();
@@ -151,15 +142,39 @@ public final class DyTalksITCase {
         );
     }
 
+    /**
+     * DyTalks can list siblings with their summaries.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void listsSiblingsWithSummaries() throws Exception {
+        final Talks talks = new DyTalks(this.dynamo());
+        final String repo = "repo2";
+        final String name = "yegor256/rultor#11";
+        talks.create(repo, name);
+        talks.get(name).modify(
+            new Directives().xpath("/talk")
+                .add("wire").add("href").set("http://example.com").up().up()
+                .add("archive").add("log").attr("id", "abcdef")
+                .attr("title", "merge").set("s3://test/abcdef.txt")
+        );
+        MatcherAssert.assertThat(
+            talks.siblings(repo, new Date()).iterator().next().read(),
+            XhtmlMatchers.hasXPaths(
+                "/talk[@name='yegor256/rultor#11' and @number]",
+                "/talk/wire[href='http://example.com']",
+                "/talk/archive/log[@id='abcdef' and @title='merge']"
+            )
+        );
+    }
+
     /**
      * DyTalks can list recent talks, ignoring private ones.
      * @throws Exception If some problem inside
      */
     @Test
     public void listsRecentTalksExceptPrivates() throws Exception {
-        final Talks talks = new DyTalks(
-            this.dynamo(), new MkSttc().counters().get("")
-        );
+        final Talks talks = new DyTalks(this.dynamo());
         final String name = "yegor256/rultor#990";
         talks.create("a/ff", name);
         final Talk talk = talks.get(name);
@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.dynamo;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import com.jcabi.aspects.Tv;
+import com.jcabi.dynamo.Credentials;
+import com.jcabi.dynamo.Region;
+import com.jcabi.dynamo.retry.ReRegion;
+import com.jcabi.manifests.Manifests;
+import com.rultor.spi.Pulse;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Integration case for {@link DyTicks}.
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class DyTicksITCase {
+
+    /**
+     * DyTicks can publish and fetch ticks of nodes.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void publishesAndFetchesTicks() throws Exception {
+        final DyTicks ticks = new DyTicks(this.dynamo());
+        final long start = System.currentTimeMillis();
+        final String node = "web.7";
+        ticks.add(
+            node,
+            new Pulse.Tick(
+                start, 1L, 2,
+                new ImmutableMap.Builder<String, Long>()
+                    .put("starter", 1L)
+                    .put("closer", 2L)
+                    .build()
+            )
+        );
+        final Map<String, Collection<Pulse.Tick>> fetched =
+            ticks.since(start - 1L);
+        MatcherAssert.assertThat(fetched, Matchers.hasKey(node));
+        final Pulse.Tick tick = Iterables.getLast(fetched.get(node));
+        MatcherAssert.assertThat(tick.start(), Matchers.equalTo(start));
+        MatcherAssert.assertThat(tick.total(), Matchers.equalTo(2));
+        MatcherAssert.assertThat(
+            tick.stages().keySet(),
+            Matchers.contains("starter", "closer")
+        );
+    }
+
+    /**
+     * DyTicks can delete all ticks older than the given moment.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void prunesAllOldHours() throws Exception {
+        final DyTicks ticks = new DyTicks(this.dynamo());
+        final long now = System.currentTimeMillis();
+        final long hour = TimeUnit.HOURS.toMillis(1L);
+        final String node = "web.8";
+        for (int idx = 1; idx <= Tv.FIVE; ++idx) {
+            ticks.add(node, new Pulse.Tick(now - hour * idx, 1L, 1));
+        }
+        ticks.add(node, new Pulse.Tick(now, 1L, 1));
+        ticks.prune(now - hour);
+        final Map<String, Collection<Pulse.Tick>> left =
+            ticks.since(now - hour * Tv.TEN);
+        MatcherAssert.assertThat(left, Matchers.hasKey(node));
+        for (final Pulse.Tick tick : left.get(node)) {
+            MatcherAssert.assertThat(
+                tick.start(),
+                Matchers.greaterThanOrEqualTo(now - hour * 2L)
+            );
+        }
+    }
+
+    /**
+     * DynamoDB region for tests.
+     * @return Region
+     */
+    private Region dynamo() {
+        final String key = Manifests.read("Rultor-DynamoKey");
+        Assume.assumeNotNull(key);
+        final String port = System.getProperty("dynamo.port");
+        Assume.assumeNotNull(port);
+        MatcherAssert.assertThat(key.startsWith("AAAA"), Matchers.is(true));
+        return new Region.Prefixed(
+            new ReRegion(
+                new Region.Simple(
+                    new Credentials.Direct(
+                        new Credentials.Simple(
+                            key,
+                            Manifests.read("Rultor-DynamoSecret")
+                        ),
+                        Integer.parseInt(port)
+                    )
+                )
+            ),
+            "rt-"
+        );
+    }
+
+}
@@ -30,8 +30,10 @@
 package com.rultor.spi;
 
 import com.jcabi.matchers.XhtmlMatchers;
+import com.jcabi.xml.XMLDocument;
 import org.hamcrest.MatcherAssert;
 import org.junit.Test;
+import org.mockito.Mockito;
 import org.xembly.Directives;
 
 /**
@@ -67,4 +69,24 @@ public final class TalkTest {
         );
     }
 
+    /**
+     * Talk.Cached can read the content only once, until modified.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void readsContentOnce() throws Exception {
+        final Talk origin = Mockito.mock(Talk.class);
+        Mockito.doReturn(new XMLDocument("<talk/>")).when(origin).read();
+        final Talk talk = new Talk.Cached(origin);
+        talk.read();
+        talk.read();
+        Mockito.verify(origin, Mockito.times(1)).read();
+        talk.modify(new Directives().xpath("/talk").attr("later", "true"));
+        MatcherAssert.assertThat(
+            talk.read(),
+            XhtmlMatchers.hasXPath("/talk")
+        );
+        Mockito.verify(origin, Mockito.times(2)).read();
+    }
+
 }
@@ -27,45 +27,44 @@
  * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
  * OF THE POSSIBILITY OF SUCH DAMAGE.
  */
-package com.rultor.agents.shells;
+package com.rultor.spi;
 
-import com.jcabi.matchers.XhtmlMatchers;
-import com.rultor.spi.Agent;
-import com.rultor.spi.Talk;
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
 import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.junit.Test;
-import org.xembly.Directives;
 
 /**
- * Tests for ${@link RegistersShell}.
+ * Tests for {@link Validated}.
  *
  * @author Yegor Bugayenko (yegor@tpc2.com)
  * @version $Id$
- * @since 1.0
+ * @since 2.0
  */
-public final class RegistersShellTest {
+public final class ValidatedTest {
 
     /**
-     * RegistersShell can register a shell.
+     * Validated can accept valid XML.
      * @throws Exception In case of error.
      */
     @Test
-    public void registersShell() throws Exception {
-        final Agent agent = new RegistersShell(
-            "localhost", 1, "user", "key"
+    public void acceptsValidXML() throws Exception {
+        final XML xml = new XMLDocument(
+            "<talk name='x' number='1' later='false'/>"
         );
-        final Talk talk = new Talk.InFile();
-        talk.modify(
-            new Directives().xpath("/talk")
-                .add("daemon").attr("id", "abcd")
-                .add("title").set("something").up()
-                .add("script").set("test")
-        );
-        agent.execute(talk);
         MatcherAssert.assertThat(
-            talk.read(),
-            XhtmlMatchers.hasXPath("/talk/shell[@id='abcd']/port")
+            new Validated(xml).xml(), Matchers.sameInstance(xml)
         );
     }
 
+    /**
+     * Validated can reject invalid XML.
+     * @throws Exception In case of error.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidXML() throws Exception {
+        new Validated(new XMLDocument("<talk name='y'/>")).xml();
+    }
+
 }
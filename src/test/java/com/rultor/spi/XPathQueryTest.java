@@ -0,0 +1,181 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.spi;
+
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import java.util.LinkedList;
+import java.util.List;
+import org.apache.commons.lang3.StringUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.w3c.dom.Node;
+
+/**
+ * Tests for {@link XPathQuery}.
+ *
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class XPathQueryTest {
+
+    /**
+     * XPathQuery can find texts with variables.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void findsTextsWithVariables() throws Exception {
+        final XML xml = new XMLDocument(
+            "<talk><log id='a'>first</log><log id='b'>second</log></talk>"
+        );
+        final XPathQuery query = new XPathQuery("/talk/log[@id=$id]/text()");
+        MatcherAssert.assertThat(
+            query.with("id", "b").xpath(xml),
+            Matchers.contains("second")
+        );
+        MatcherAssert.assertThat(
+            query.with("id", "a").xpath(xml),
+            Matchers.contains("first")
+        );
+        MatcherAssert.assertThat(
+            query.with("id", "c").exists(xml),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * XPathQuery can find nodes and query them further.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void findsNodes() throws Exception {
+        final XML xml = new XMLDocument(
+            "<p><entry key='x'><item>1</item><item>2</item></entry></p>"
+        );
+        final XML entry = new XPathQuery("/p/entry[@key=$key]")
+            .with("key", "x")
+            .nodes(xml)
+            .get(0);
+        MatcherAssert.assertThat(
+            new XPathQuery("item/text()").xpath(entry),
+            Matchers.contains("1", "2")
+        );
+        MatcherAssert.assertThat(
+            new XPathQuery("@key").xpath(entry),
+            Matchers.contains("x")
+        );
+    }
+
+    /**
+     * XPathQuery can run relative queries on every node found.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void queriesEveryNodeFound() throws Exception {
+        final XML xml = new XMLDocument(
+            StringUtils.join(
+                "<talk><archive>",
+                "<log id='a1' title='first'>s3://a</log>",
+                "<log id='b2' title='second'>s3://b</log>",
+                "</archive></talk>"
+            )
+        );
+        final XPathQuery ident = new XPathQuery("@id");
+        final XPathQuery title = new XPathQuery("@title");
+        final List<String> found = new LinkedList<String>();
+        for (final XML log : new XPathQuery("/talk/archive/log").nodes(xml)) {
+            found.add(
+                String.format(
+                    "%s:%s:%s",
+                    ident.xpath(log).get(0),
+                    title.xpath(log).get(0),
+                    new XPathQuery("text()").xpath(log).get(0)
+                )
+            );
+        }
+        MatcherAssert.assertThat(
+            found,
+            Matchers.contains("a1:first:s3://a", "b2:second:s3://b")
+        );
+    }
+
+    /**
+     * XPathQuery can copy the document only once.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void copiesDocumentOnce() throws Exception {
+        final XML origin = new XMLDocument("<x><y>1</y><z>2</z></x>");
+        final XML xml = Mockito.mock(XML.class);
+        Mockito.when(xml.node()).thenReturn(origin.node());
+        MatcherAssert.assertThat(
+            new XPathQuery("/x/y/text()").xpath(xml),
+            Matchers.contains("1")
+        );
+        MatcherAssert.assertThat(
+            new XPathQuery("/x/z/text()").xpath(xml),
+            Matchers.contains("2")
+        );
+        Mockito.verify(xml, Mockito.times(1)).node();
+    }
+
+    /**
+     * XPathQuery can return nodes detached from the document queried.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void detachesNodesFound() throws Exception {
+        final Node dom = new XMLDocument("<r><e a='1'/></r>").node();
+        final XML xml = Mockito.mock(XML.class);
+        Mockito.when(xml.node()).thenReturn(dom);
+        final XML found = new XPathQuery("/r/e").nodes(xml).get(0);
+        MatcherAssert.assertThat(
+            found.node().getOwnerDocument(),
+            Matchers.not(Matchers.sameInstance(dom))
+        );
+        MatcherAssert.assertThat(
+            new XPathQuery("@a").xpath(found),
+            Matchers.contains("1")
+        );
+    }
+
+    /**
+     * XPathQuery can complain about a missing variable.
+     * @throws Exception In case of error.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void failsOnMissingVariable() throws Exception {
+        new XPathQuery("/a[@b=$c]").exists(new XMLDocument("<a b='1'/>"));
+    }
+
+}
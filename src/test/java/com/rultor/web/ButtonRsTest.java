@@ -30,8 +30,14 @@
 package com.rultor.web;
 
 import com.jcabi.matchers.XhtmlMatchers;
+import com.rexsl.mock.MkServletContext;
+import com.rultor.spi.Talk;
+import com.rultor.spi.Talks;
+import javax.ws.rs.core.Request;
 import org.hamcrest.MatcherAssert;
 import org.junit.Test;
+import org.mockito.Mockito;
+import org.xembly.Directives;
 
 /**
  * Test case for {@link ButtonRs}.
@@ -49,11 +55,55 @@ public final class ButtonRsTest {
     public void rendersSvg() throws Exception {
         final ButtonRs home = new ButtonRs();
         home.setName("test/test");
+        home.setServletContext(
+            new MkServletContext().withAttr(
+                Talks.class.getName(), new Talks.InDir()
+            )
+        );
         MatcherAssert.assertThat(
-            XhtmlMatchers.xhtml(home.svg().getEntity()),
+            XhtmlMatchers.xhtml(
+                home.svg(Mockito.mock(Request.class)).getEntity()
+            ),
             XhtmlMatchers.hasXPaths(
                 "/svg:svg",
-                "//svg:svg[count(svg:rect) >= 2]"
+                "//svg:svg[count(svg:rect) >= 2]",
+                "/svg:svg/svg:title[.='unknown']"
+            )
+        );
+    }
+
+    /**
+     * ButtonRs can render the outcome of the latest build.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void rendersLatestOutcome() throws Exception {
+        final String repo = "test/outcome";
+        final Talks talks = new Talks.InDir();
+        talks.create(repo, Talk.TEST_NAME);
+        talks.get(Talk.TEST_NAME).modify(
+            new Directives()
+                .xpath("/talk")
+                .attr("public", "true")
+                .add("archive").add("log").attr("id", "abcdef")
+                .attr("title", "merge: 1 (FAILURE) in 5s, 10 lines")
+                .set("s3://test/1").up()
+                .add("log").attr("id", "fedcba")
+                .attr("title", "merge: 0 (SUCCESS) in 7s, 12 lines")
+                .set("s3://test/2")
+        );
+        final ButtonRs home = new ButtonRs();
+        home.setName(repo);
+        home.setServletContext(
+            new MkServletContext().withAttr(Talks.class.getName(), talks)
+        );
+        MatcherAssert.assertThat(
+            XhtmlMatchers.xhtml(
+                home.svg(Mockito.mock(Request.class)).getEntity()
+            ),
+            XhtmlMatchers.hasXPaths(
+                "/svg:svg/svg:title[.='success']",
+                "/svg:svg/svg:rect[@fill='#348C62']"
             )
         );
     }
@@ -58,16 +58,17 @@ public final class HomeRsTest {
                 new Pulse() {
                     @Override
                     public Iterable<Pulse.Tick> ticks() {
+                        final long now = System.currentTimeMillis();
                         return Arrays.asList(
-                            new Pulse.Tick(1L, 1L, 1),
-                            new Pulse.Tick(2L, 1L, 1)
+                            new Pulse.Tick(now - 1L, 1L, 1),
+                            new Pulse.Tick(now - 2L, 1L, 1)
                         );
                     }
                 }
             )
         );
         MatcherAssert.assertThat(
-            XhtmlMatchers.xhtml(home.svg()),
+            XhtmlMatchers.xhtml(home.svg(null)),
             XhtmlMatchers.hasXPaths(
                 "/svg:svg",
                 "//svg:svg[count(svg:rect) >= 2]"
@@ -94,7 +95,21 @@ public final class HomeRsTest {
             )
         );
         MatcherAssert.assertThat(
-            XhtmlMatchers.xhtml(home.svg()),
+            XhtmlMatchers.xhtml(home.svg(null)),
+            XhtmlMatchers.hasXPath("//svg:tspan[contains(.,'outage')]")
+        );
+    }
+
+    /**
+     * HomeRs can render SVG of the cluster before the first refresh.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void rendersClusterSvgWithoutNodes() throws Exception {
+        final HomeRs home = new HomeRs();
+        home.setServletContext(new MkServletContext());
+        MatcherAssert.assertThat(
+            XhtmlMatchers.xhtml(home.cluster("24")),
             XhtmlMatchers.hasXPath("//svg:tspan[contains(.,'outage')]")
         );
     }
@@ -30,11 +30,25 @@
 package com.rultor.web;
 
 import com.jcabi.matchers.XhtmlMatchers;
+import com.rexsl.mock.HttpHeadersMocker;
 import com.rexsl.mock.MkServletContext;
+import com.rexsl.mock.UriInfoMocker;
 import com.rultor.spi.Talk;
 import com.rultor.spi.Talks;
+import java.io.ByteArrayOutputStream;
+import java.net.HttpURLConnection;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.TimeZone;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import org.apache.commons.lang3.CharEncoding;
 import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.junit.Test;
+import org.mockito.Mockito;
 import org.xembly.Directives;
 
 /**
@@ -46,17 +60,118 @@ import org.xembly.Directives;
 public final class SitemapRsTest {
 
     /**
-     * SitemapRs can render a list.
+     * Namespace of sitemaps.
+     */
+    private static final String NAMESPACE =
+        "http://www.sitemaps.org/schemas/sitemap/0.9";
+
+    /**
+     * SitemapRs can render an index of monthly sitemaps.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void rendersIndexOfMonths() throws Exception {
+        final Calendar now = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        MatcherAssert.assertThat(
+            XhtmlMatchers.xhtml(
+                SitemapRsTest.body(
+                    SitemapRsTest.sitemap().index(
+                        Mockito.mock(Request.class)
+                    )
+                )
+            ),
+            XhtmlMatchers.hasXPath(
+                String.format(
+                    "/ns1:sitemapindex/ns1:sitemap/ns1:loc[contains(.,'%s')]",
+                    String.format("/sitemap.xml/%tY/%1$tm", now.getTime())
+                ),
+                SitemapRsTest.NAMESPACE
+            )
+        );
+    }
+
+    /**
+     * SitemapRs can render a list of talks of the current month.
      * @throws Exception If some problem inside
      */
     @Test
     public void rendersListOfTalks() throws Exception {
+        final Calendar now = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        MatcherAssert.assertThat(
+            XhtmlMatchers.xhtml(
+                SitemapRsTest.body(
+                    SitemapRsTest.sitemap().month(
+                        Mockito.mock(Request.class),
+                        now.get(Calendar.YEAR),
+                        now.get(Calendar.MONTH) + 1
+                    )
+                )
+            ),
+            XhtmlMatchers.hasXPath(
+                "/ns1:urlset[count(ns1:url)=1]",
+                SitemapRsTest.NAMESPACE
+            )
+        );
+    }
+
+    /**
+     * SitemapRs can start the index in July 2014.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void startsIndexInJuly() throws Exception {
+        final String xml = SitemapRsTest.body(
+            SitemapRsTest.sitemap().index(Mockito.mock(Request.class))
+        );
+        MatcherAssert.assertThat(
+            XhtmlMatchers.xhtml(xml),
+            XhtmlMatchers.hasXPath(
+                "/ns1:sitemapindex/ns1:sitemap[1]/ns1:loc[contains(.,'/07')]",
+                SitemapRsTest.NAMESPACE
+            )
+        );
+        MatcherAssert.assertThat(
+            XhtmlMatchers.xhtml(xml),
+            XhtmlMatchers.hasXPath(
+                "/ns1:sitemapindex/ns1:sitemap[1]/ns1:loc[contains(.,'/2014')]",
+                SitemapRsTest.NAMESPACE
+            )
+        );
+    }
+
+    /**
+     * SitemapRs can return 304 for a past month, not modified since.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void returnsNotModifiedForPastMonth() throws Exception {
+        final Request request = Mockito.mock(Request.class);
+        Mockito.doReturn(Response.notModified()).when(request)
+            .evaluatePreconditions(
+                Mockito.any(Date.class), Mockito.any(EntityTag.class)
+            );
+        MatcherAssert.assertThat(
+            // @checkstyle MagicNumber (1 line)
+            SitemapRsTest.sitemap().month(request, 2014, 8).getStatus(),
+            Matchers.equalTo(HttpURLConnection.HTTP_NOT_MODIFIED)
+        );
+    }
+
+    /**
+     * Make a sitemap with one talk.
+     * @return Sitemap
+     * @throws Exception If some problem inside
+     */
+    private static SitemapRs sitemap() throws Exception {
         final SitemapRs home = new SitemapRs();
+        home.setUriInfo(new UriInfoMocker().mock());
+        home.setHttpHeaders(new HttpHeadersMocker().mock());
         final Talks talks = new Talks.InDir();
         talks.create("repo1", Talk.TEST_NAME);
         talks.get(Talk.TEST_NAME).modify(
             new Directives()
                 .xpath("/talk")
+                .attr("public", "true")
                 .add("wire").add("href").set("http://example.com").up()
                 .add("github-repo").set("yegor256/rultor").up()
                 .add("github-issue").set("555").up().up()
@@ -66,13 +181,19 @@ public final class SitemapRsTest {
         home.setServletContext(
             new MkServletContext().withAttr(Talks.class.getName(), talks)
         );
-        MatcherAssert.assertThat(
-            XhtmlMatchers.xhtml(home.xml()),
-            XhtmlMatchers.hasXPath(
-                "/ns1:urlset[count(ns1:url)=1]",
-                "http://www.sitemaps.org/schemas/sitemap/0.9"
-            )
-        );
+        return home;
+    }
+
+    /**
+     * Read the streamed body of the response.
+     * @param response Response
+     * @return Body
+     * @throws Exception If some problem inside
+     */
+    private static String body(final Response response) throws Exception {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        StreamingOutput.class.cast(response.getEntity()).write(baos);
+        return new String(baos.toByteArray(), CharEncoding.UTF_8);
     }
 
 }
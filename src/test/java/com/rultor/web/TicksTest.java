@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2009-2014, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.web;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import com.jcabi.aspects.Tv;
+import com.rultor.spi.Pulse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import org.apache.commons.lang3.CharEncoding;
+import org.apache.commons.lang3.StringUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link Ticks}.
+ * @author Yegor Bugayenko (yegor@tpc2.com)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class TicksTest {
+
+    /**
+     * Ticks can keep only the latest ticks.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void keepsLatestTicks() throws Exception {
+        final Ticks ticks = new Ticks(2);
+        ticks.add(new Pulse.Tick(1L, 1L, 1));
+        ticks.add(new Pulse.Tick(2L, 1L, 1));
+        ticks.add(new Pulse.Tick(3L, 1L, 1));
+        MatcherAssert.assertThat(
+            ticks.ticks(), Matchers.<Pulse.Tick>iterableWithSize(2)
+        );
+        MatcherAssert.assertThat(
+            Iterables.getLast(ticks.ticks()).start(),
+            Matchers.equalTo(3L)
+        );
+    }
+
+    /**
+     * Ticks can be saved and loaded back.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void savesAndLoads() throws Exception {
+        final Ticks ticks = new Ticks(2);
+        ticks.add(
+            new Pulse.Tick(
+                1L, 2L, 1,
+                new ImmutableMap.Builder<String, Long>()
+                    .put("starter", 1L)
+                    .put("closer", 1L)
+                    .build()
+            )
+        );
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ticks.save(baos);
+        final Ticks loaded = new Ticks(2);
+        MatcherAssert.assertThat(
+            loaded.load(new ByteArrayInputStream(baos.toByteArray())),
+            Matchers.equalTo(1)
+        );
+        final Pulse.Tick tick = Iterables.getOnlyElement(loaded.ticks());
+        MatcherAssert.assertThat(tick.duration(), Matchers.equalTo(2L));
+        MatcherAssert.assertThat(
+            tick.stages().keySet(),
+            Matchers.contains("starter", "closer")
+        );
+    }
+
+    /**
+     * Ticks can save names of stages only once.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void savesNamesOnce() throws Exception {
+        final Ticks ticks = new Ticks(Tv.TEN);
+        final String name = "agents-of-talks";
+        for (int idx = 0; idx < Tv.TEN; ++idx) {
+            ticks.add(
+                new Pulse.Tick(
+                    (long) idx, 1L, 1,
+                    new ImmutableMap.Builder<String, Long>()
+                        .put(name, (long) idx)
+                        .build()
+                )
+            );
+        }
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ticks.save(baos);
+        MatcherAssert.assertThat(
+            StringUtils.countMatches(
+                new String(baos.toByteArray(), CharEncoding.UTF_8), name
+            ),
+            Matchers.equalTo(1)
+        );
+        final Ticks loaded = new Ticks(Tv.TEN);
+        loaded.load(new ByteArrayInputStream(baos.toByteArray()));
+        MatcherAssert.assertThat(
+            Iterables.getLast(loaded.ticks()).stages(),
+            Matchers.hasEntry(name, (long) Tv.NINE)
+        );
+    }
+
+}